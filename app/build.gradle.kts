@@ -1,3 +1,6 @@
+import com.zendalona.zmantra.build.CompileHintsTask
+import com.zendalona.zmantra.build.CompileQuestionBankTask
+
 plugins {
     alias(libs.plugins.android.application)
     alias(libs.plugins.kotlin.android)
@@ -16,10 +19,18 @@ android {
         versionCode = 3
         versionName = "1.0.9"
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Debug logging switch read by AppLog; a compile-time constant, so disabled log
+        // statements are removed by the compiler
+        buildConfigField("boolean", "DEBUG_LOGS", "true")
     }
 
     buildTypes {
         release {
+            // Pass -PdebugLogs=true to keep debug logs in a release build
+            buildConfigField(
+                "boolean", "DEBUG_LOGS", providers.gradleProperty("debugLogs").getOrElse("false")
+            )
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -40,6 +51,64 @@ android {
     viewBinding {
         enable = true
     }
+
+    buildFeatures {
+        buildConfig = true
+    }
+
+    sourceSets {
+        // Sheet cells become text by the same rule as in the build-time sheet compiler, and the
+        // unit tests run that compiler's reader to check both produce the same rows
+        getByName("main").java.srcDir(rootProject.file("buildSrc/src/shared/kotlin"))
+        getByName("test").java.srcDir(rootProject.file("buildSrc/src/xlsx/kotlin"))
+    }
+}
+
+// Question sheets are compiled to questions/<lang>.bin and hint sheets to hint/<lang>.json,
+// so the app never builds a POI workbook for them at runtime
+androidComponents {
+    onVariants { variant ->
+        val variantName = variant.name.replaceFirstChar { it.uppercase() }
+        val compileQuestionBank = tasks.register<CompileQuestionBankTask>(
+            "compile${variantName}QuestionBank"
+        ) {
+            sheets.from(fileTree("src/main/assets/questions") { include("*.xlsx") })
+        }
+        variant.sources.assets?.addGeneratedSourceDirectory(
+            compileQuestionBank,
+            CompileQuestionBankTask::outputDir
+        )
+
+        val compileHints = tasks.register<CompileHintsTask>("compile${variantName}Hints") {
+            sheets.from(fileTree("src/main/assets/hint") { include("*.xlsx") })
+        }
+        variant.sources.assets?.addGeneratedSourceDirectory(
+            compileHints,
+            CompileHintsTask::outputDir
+        )
+    }
+}
+
+// Runs the JMH benchmarks from the debug unit test classes, whose classpath already has the
+// mockable android.jar. Filter with -Pjmh.include=<regex>; results go to build/reports/jmh.
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks with the GC profiler (time and allocations per op)."
+
+    val unitTest = tasks.named<Test>("testDebugUnitTest")
+    dependsOn("compileDebugUnitTestKotlin", "compileDebugUnitTestJavaWithJavac")
+    classpath(unitTest.map { it.testClassesDirs }, unitTest.map { it.classpath })
+    mainClass.set("org.openjdk.jmh.Main")
+    workingDir = projectDir
+
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    doFirst { results.get().asFile.parentFile.mkdirs() }
+    args(
+        providers.gradleProperty("jmh.include").getOrElse(".*Benchmark.*"),
+        "-prof", "gc",
+        "-rf", "json",
+        "-rff", results.get().asFile.absolutePath
+    )
 }
 
 dependencies {
@@ -47,6 +116,7 @@ dependencies {
     implementation(libs.core.ktx)
     implementation(libs.appcompat)
     implementation(libs.lifecycle.runtime.ktx)
+    implementation(libs.lifecycle.process)
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     implementation(libs.material)
@@ -68,6 +138,10 @@ dependencies {
     testImplementation(libs.coroutines.test)
     testImplementation(libs.core.testing)
 
+    // JMH benchmarks (src/test/.../benchmark), run with ./gradlew :app:jmh
+    testImplementation(libs.jmh.core)
+    kaptTest(libs.jmh.generator)
+
     // Android Instrumentation Tests
     androidTestImplementation(libs.espresso.core)
     androidTestImplementation(libs.espresso.idling.resource)
@@ -10,8 +10,12 @@ import android.view.Menu
 import android.view.MenuItem
 import androidx.appcompat.app.AppCompatActivity
 import androidx.fragment.app.Fragment
+import androidx.lifecycle.lifecycleScope
 import com.google.android.material.appbar.MaterialToolbar
 import com.zendalona.zmantra.core.utility.PermissionManager
+import com.zendalona.zmantra.core.utility.common.CommonPhrases
+import com.zendalona.zmantra.core.utility.common.SpeechEngine
+import com.zendalona.zmantra.core.utility.common.WebViewPool
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityHelper
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityUtils
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityUtils.Companion.isMyAccessibilityServiceEnabled
@@ -19,14 +23,23 @@ import com.zendalona.zmantra.core.utility.accessibility.MathsManthraAccessibilit
 import com.zendalona.zmantra.domain.model.HintIconVisibilityController
 import com.zendalona.zmantra.domain.model.Hintable
 import com.zendalona.zmantra.presentation.features.hint.HintFragment
+import com.zendalona.zmantra.presentation.features.hint.HintHtmlCache
 import com.zendalona.zmantra.presentation.features.landing.FragmentNavigation
 import com.zendalona.zmantra.presentation.features.landing.LandingPageFragment
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper
 import dagger.hilt.android.AndroidEntryPoint
+import kotlinx.coroutines.launch
+import javax.inject.Inject
 
 @AndroidEntryPoint
 class MainActivity : AppCompatActivity(), FragmentNavigation {
 
+    @Inject
+    lateinit var hintHtmlCache: HintHtmlCache
+
+    @Inject
+    lateinit var speechEngine: SpeechEngine
+
     private lateinit var permissionManager: PermissionManager
 
     private val prefs by lazy {
@@ -58,6 +71,22 @@ class MainActivity : AppCompatActivity(), FragmentNavigation {
                 .commit()
         }
 
+        // Initialize a WebView while idle so hint and user guide screens skip engine startup
+        WebViewPool.warmUp(this)
+
+        // Pre-synthesize feedback, numbers, days and directions at the rate game screens speak
+        Looper.myQueue().addIdleHandler {
+            val language = LocaleHelper.getLanguage(this).ifEmpty { "en" }
+            speechEngine.warmPhrases(SpeechEngine.localeFor(language), 1.0f, CommonPhrases.collect(this))
+            false
+        }
+
+        // Render this language's hint pages in the background so hint screens open instantly
+        val hintTheme = HintHtmlCache.HintTheme.from(this)
+        lifecycleScope.launch {
+            hintHtmlCache.warm(LocaleHelper.getLanguage(this@MainActivity).ifEmpty { "en" }, hintTheme)
+        }
+
         // Permissions
         permissionManager = PermissionManager(this, object : PermissionManager.PermissionCallback {
             override fun onPermissionGranted() {
@@ -5,6 +5,7 @@ import android.content.Intent
 import android.os.Bundle
 import android.os.Handler
 import android.os.Looper
+import android.os.SystemClock
 import android.util.Log
 import android.view.accessibility.AccessibilityManager
 import android.widget.ImageView
@@ -13,6 +14,8 @@ import androidx.lifecycle.lifecycleScope
 import com.bumptech.glide.Glide
 import com.google.android.material.progressindicator.LinearProgressIndicator
 import com.zendalona.zmantra.core.utility.excel.QuestionCache
+import com.zendalona.zmantra.core.utility.excel.RecentModes
+import com.zendalona.zmantra.presentation.features.setting.util.DifficultyPreferences
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper
 import kotlinx.coroutines.launch
 
@@ -50,27 +53,23 @@ class SplashScreen : AppCompatActivity() {
         }
 
         lifecycleScope.launch {
+            val start = SystemClock.elapsedRealtime()
             val lang = LocaleHelper.getLanguage(this@SplashScreen).ifEmpty { "en" }
 
-            Log.d("SplashScreen", "⏳ Preloading current difficulty...")
-            QuestionCache.preloadCurrentDifficultyModes(this@SplashScreen, lang) { progress ->
-                handler.post {
-                    progressBar.setProgress(progress, true)
-                }
-            }
-            Log.d("SplashScreen", "✅ Current difficulty preload complete")
+            // Only open the question index here; each mode is rendered when a game first asks for it
+            Log.d("SplashScreen", "⏳ Opening question index...")
+            QuestionCache.openIndex(this@SplashScreen, lang)
+            progressBar.setProgress(100, true)
+            Log.d("SplashScreen", "✅ Question index ready in ${SystemClock.elapsedRealtime() - start} ms")
+
+            // Warm the modes the player is likely to open next
+            val difficulty = DifficultyPreferences.getDifficulty(this@SplashScreen).toString()
+            QuestionCache.prefetch(this@SplashScreen, lang, RecentModes.get(this@SplashScreen), difficulty)
 
             announceRunnable?.let { handler.removeCallbacks(it) }
 
             startActivity(Intent(this@SplashScreen, MainActivity::class.java))
             finish()
-
-            // Background preload for other difficulties
-            launch {
-                Log.d("SplashScreen", "⏳ Preloading other difficulties in background...")
-                QuestionCache.preloadOtherDifficultyModes(this@SplashScreen, lang)
-                Log.d("SplashScreen", "✅ Background preload complete")
-            }
         }
     }
 }
@@ -3,11 +3,17 @@ package com.zendalona.zmantra
 import android.app.Application
 import androidx.appcompat.app.AppCompatDelegate
 import androidx.preference.PreferenceManager
+import com.zendalona.zmantra.core.utility.common.SpeechEngine
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper
 import dagger.hilt.android.HiltAndroidApp
+import javax.inject.Inject
 
 @HiltAndroidApp
 class ZMantra : Application() {
+
+    @Inject
+    lateinit var speechEngine: SpeechEngine
+
     override fun onCreate() {
         super.onCreate()
 
@@ -20,5 +26,9 @@ class ZMantra : Application() {
         val prefs = PreferenceManager.getDefaultSharedPreferences(this)
         val contrast = prefs.getInt("app_contrast_mode", AppCompatDelegate.MODE_NIGHT_NO)
         AppCompatDelegate.setDefaultNightMode(contrast)
+
+        // Bind the shared TTS engine now so the first screen that speaks does not wait for it
+        speechEngine.bind()
+        speechEngine.observeProcessLifecycle()
     }
 }
@@ -0,0 +1,16 @@
+package com.zendalona.zmantra.core.Enum
+
+/**
+ * How urgent an utterance is, lowest first. A higher priority interrupts a lower one; a lower one
+ * waits until the engine is free.
+ */
+enum class SpeechPriority {
+    /** Background announcements; never queued more than one deep. */
+    AMBIENT,
+
+    /** Reading a question or instruction. */
+    QUESTION,
+
+    /** Answer feedback, which must follow the user's input immediately. */
+    FEEDBACK
+}
@@ -19,17 +19,15 @@ import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.utility.common.DialogUtils
 import com.zendalona.zmantra.core.utility.common.GradingUtils
 import com.zendalona.zmantra.core.utility.common.TTSUtility
-import com.zendalona.zmantra.core.utility.excel.ExcelQuestionLoader
 import com.zendalona.zmantra.core.utility.excel.QuestionCache
-import com.zendalona.zmantra.domain.model.GameQuestion
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
+import com.zendalona.zmantra.core.utility.excel.RecentModes
 import com.zendalona.zmantra.domain.model.Hintable
 import com.zendalona.zmantra.presentation.features.hint.HintFragment
 import com.zendalona.zmantra.presentation.features.setting.util.DifficultyPreferences
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper
 import com.zendalona.zmantra.utility.EndScore
-import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
-import kotlinx.coroutines.withContext
 
 abstract class BaseGameFragment : Fragment(), Hintable {
 
@@ -135,43 +133,29 @@ abstract class BaseGameFragment : Fragment(), Hintable {
         return GradingUtils.getGrade(elapsedTime, limit, true)
     }
 
-    // ✅ NEW: Load with cache and Excel fallback
+    // ✅ Open the mode's question stream; joins the splash index load if it is still running
     private fun loadQuestions() {
         viewLifecycleOwner.lifecycleScope.launch {
             val start = System.currentTimeMillis()
             val tag = "BaseGameFragment"
             val gameModeName = mode
 
-            // Try cache
-            var questions = QuestionCache.getQuestions(lang, gameModeName, difficulty)
-            if (questions.isNotEmpty()) {
-                Log.d(tag, "🚀 [$gameModeName-$difficulty] Loaded ${questions.size} from cache")
-            } else {
-                Log.d(tag, "📥 [$gameModeName-$difficulty] Loading from Excel...")
-
-                questions = withContext(Dispatchers.IO) {
-                    ExcelQuestionLoader.loadQuestionsFromExcel(
-                        requireContext(),
-                        lang,
-                        gameModeName,
-                        difficulty
-                    )
-                }
-
-                QuestionCache.putQuestions(lang, gameModeName, difficulty, questions)
-                Log.d(tag, "📦 [$gameModeName-$difficulty] Saved ${questions.size} to cache")
-            }
+            val stream = QuestionCache.openStream(requireContext(), lang, gameModeName, difficulty)
 
             val end = System.currentTimeMillis()
-            Log.d(tag, "✅ [$gameModeName-$difficulty] Loaded ${questions.size} questions in ${end - start} ms")
+            Log.d(tag, "✅ [$gameModeName-$difficulty] Opened ${stream.rowCount} question rows in ${end - start} ms")
 
-            if (questions.isEmpty()) {
+            if (!stream.hasNext()) {
                 Log.e(tag, "❌ [$gameModeName-$difficulty] No questions found!")
                 requireActivity().supportFragmentManager.popBackStack()
                 return@launch
             }
 
-            onQuestionsLoaded(questions)
+            onQuestionStreamReady(stream)
+
+            // Remember this mode and warm the other recent ones for the next game
+            RecentModes.record(requireContext(), gameModeName)
+            QuestionCache.prefetch(requireContext(), lang, RecentModes.get(requireContext()).drop(1), difficulty)
         }
     }
 
@@ -227,6 +211,11 @@ abstract class BaseGameFragment : Fragment(), Hintable {
         }
     }
 
-    protected abstract fun onQuestionsLoaded(questions: List<GameQuestion>)
+    /**
+     * Receives the mode's endless question stream, never empty. Screens pull one question with
+     * `next()` each time they move on, so a session lasts as long as the player keeps going.
+     */
+    protected abstract fun onQuestionStreamReady(stream: QuestionStream)
+
     protected abstract fun getModeName(): String
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import android.util.Log;
 import android.view.accessibility.AccessibilityEvent;
 import android.widget.Toast;
 
+import com.zendalona.zmantra.core.utility.common.AppLog;
+
 public class MathsManthraAccessibilityService extends AccessibilityService {
 
     @Override
@@ -18,18 +20,18 @@ public class MathsManthraAccessibilityService extends AccessibilityService {
         // Ensure the service is always set
         if (AccessibilityHelper.getAccessibilityService() == null) {
             AccessibilityHelper.setAccessibilityService(this);
-            Log.d("MathsMantraAccessible", "Service set via fallback in event.");
+            if (AppLog.ENABLED) Log.d("MathsMantraAccessible", "Service set via fallback in event.");
         }
 
         if (event.getEventType() == AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED) {
             if (getPackageName().equals(packageName)) {
-                Log.d("MathsMantraAccessible", "WINDOW_STATE_CHANGED: " + event);
+                if (AppLog.ENABLED) Log.d("MathsMantraAccessible", "WINDOW_STATE_CHANGED: " + event);
             }
         }
 
         if (event.getEventType() == AccessibilityEvent.TYPE_VIEW_ACCESSIBILITY_FOCUSED) {
             if (getPackageName().equals(packageName)) {
-                Log.d("MathsMantraAccessible", "TYPE_VIEW_ACCESSIBILITY_FOCUSED: " + event);
+                if (AppLog.ENABLED) Log.d("MathsMantraAccessible", "TYPE_VIEW_ACCESSIBILITY_FOCUSED: " + event);
 
                 // Call update logic
                 MathsManthraAccessibilityService service = AccessibilityHelper.getAccessibilityService();
@@ -43,7 +45,7 @@ public class MathsManthraAccessibilityService extends AccessibilityService {
     }
 
     private void updateWindowState() {
-        Log.d("MathsMantraAccessible", "Window state updated by Accessibility Service");
+        if (AppLog.ENABLED) Log.d("MathsMantraAccessible", "Window state updated by Accessibility Service");
     }
 
     @Override
@@ -54,7 +56,7 @@ public class MathsManthraAccessibilityService extends AccessibilityService {
     @Override
     protected void onServiceConnected() {
         super.onServiceConnected();
-        Log.d("AccessibilityService", "onServiceConnected triggered");
+        if (AppLog.ENABLED) Log.d("AccessibilityService", "onServiceConnected triggered");
 
         AccessibilityHelper.setAccessibilityService(this);
 
@@ -0,0 +1,139 @@
+package com.zendalona.zmantra.core.utility.audio
+
+import android.content.Context
+import com.zendalona.zmantra.core.utility.common.AppLog
+import java.io.File
+import java.security.MessageDigest
+import java.util.Locale
+import kotlin.math.roundToInt
+
+/**
+ * Size-bounded disk cache of synthesized speech clips, shared by every mode that plays them.
+ *
+ * A clip is identified by [Key]: locale, TTS voice, speech rate and the spoken token, so a new
+ * voice or rate never plays stale audio. Files live under `cacheDir/clip_store/v<VERSION>/`;
+ * bumping [VERSION] discards every older layout. Reads refresh a file's timestamp, and once the
+ * store grows past its budget the least recently used clips are deleted.
+ */
+class ClipStore(context: Context, private val maxBytes: Long = DEFAULT_MAX_BYTES) {
+
+    data class Key(val locale: Locale, val voice: String, val rate: Float, val token: String) {
+        internal val fileName: String
+            get() {
+                val id = "${locale.toLanguageTag()}|$voice|${(rate * 100).roundToInt()}|$token"
+                val digest = MessageDigest.getInstance("SHA-1").digest(id.toByteArray())
+                return digest.take(12).joinToString("") { "%02x".format(it) } + ".wav"
+            }
+    }
+
+    private val cacheDir = context.cacheDir
+    private val root = File(cacheDir, DIR_NAME)
+    private val dir = File(root, "v$VERSION")
+
+    // File name -> size, built from the directory on first use; guarded by this
+    private var index: LinkedHashMap<String, Long>? = null
+    private var totalBytes = 0L
+
+    /** The stored clip for [key], or null on a miss. Counts as a use for eviction. */
+    fun get(key: Key): File? {
+        val name = key.fileName
+        synchronized(this) {
+            val entries = index()
+            if (name !in entries) return null
+            // Re-insert so iteration order stays least recently used first
+            entries[name] = entries.remove(name)!!
+        }
+        val file = File(dir, name)
+        if (!file.exists()) {
+            forget(name)
+            return null
+        }
+        file.setLastModified(System.currentTimeMillis())
+        return file
+    }
+
+    /** A fresh scratch file to synthesize [key] into before [commit]. */
+    fun scratchFile(key: Key): File {
+        // Build the index first, so its cleanup cannot delete this file mid-synthesis
+        synchronized(this) { index() }
+        dir.mkdirs()
+        return File.createTempFile(key.fileName, ".tmp", dir)
+    }
+
+    /** Moves a finished [scratch] file into the store and evicts old clips if needed. */
+    fun commit(key: Key, scratch: File): File? {
+        val name = key.fileName
+        val file = File(dir, name)
+        if (!scratch.renameTo(file)) {
+            scratch.delete()
+            return null
+        }
+        val evicted = synchronized(this) {
+            val entries = index()
+            entries.remove(name)?.let { totalBytes -= it }
+            entries[name] = file.length()
+            totalBytes += file.length()
+            evict(entries)
+        }
+        evicted.forEach { File(dir, it).delete() }
+        if (evicted.isNotEmpty()) AppLog.d(TAG) { "Evicted ${evicted.size} clips, $totalBytes bytes kept" }
+        return file
+    }
+
+    fun clear() {
+        synchronized(this) {
+            index = null
+            totalBytes = 0
+        }
+        root.deleteRecursively()
+    }
+
+    private fun forget(name: String) = synchronized(this) {
+        index().remove(name)?.let { totalBytes -= it }
+    }
+
+    private fun evict(entries: LinkedHashMap<String, Long>): List<String> {
+        val evicted = ArrayList<String>()
+        val iterator = entries.entries.iterator()
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            val (name, size) = iterator.next()
+            iterator.remove()
+            totalBytes -= size
+            evicted.add(name)
+        }
+        return evicted
+    }
+
+    // Caller holds the lock
+    private fun index(): LinkedHashMap<String, Long> {
+        index?.let { return it }
+
+        // Older layouts are unreadable by definition; drop them together with stray scratch files
+        root.listFiles { f -> f != dir }?.forEach { it.deleteRecursively() }
+        LEGACY_DIRS.forEach { File(cacheDir, it).deleteRecursively() }
+        dir.listFiles { f -> f.name.endsWith(".tmp") }?.forEach { it.delete() }
+
+        val files = dir.listFiles { f -> f.name.endsWith(".wav") }.orEmpty().sortedBy { it.lastModified() }
+        val entries = LinkedHashMap<String, Long>()
+        totalBytes = 0
+        files.forEach {
+            entries[it.name] = it.length()
+            totalBytes += it.length()
+        }
+        index = entries
+        return entries
+    }
+
+    companion object {
+        private const val TAG = "ClipStore"
+        private const val DIR_NAME = "clip_store"
+
+        // Unbounded per-feature clip folders used before this store existed
+        private val LEGACY_DIRS = listOf("speech_clips", "stereo_clips")
+
+        /** Bump when the file layout or key scheme changes. */
+        const val VERSION = 1
+
+        const val DEFAULT_MAX_BYTES = 8L * 1024 * 1024
+    }
+}
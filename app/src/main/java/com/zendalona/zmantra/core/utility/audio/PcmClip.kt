@@ -0,0 +1,67 @@
+package com.zendalona.zmantra.core.utility.audio
+
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+/** Mono 16-bit PCM audio held in memory, typically one spoken number or operator. */
+class PcmClip(val samples: ShortArray, val sampleRate: Int) {
+
+    val durationMs: Long get() = samples.size * 1000L / sampleRate
+
+    companion object {
+        private const val FORMAT_PCM = 1
+
+        /**
+         * Decodes a RIFF/WAVE file as written by `TextToSpeech.synthesizeToFile`. Stereo input is
+         * downmixed to mono. Returns null for anything but 16-bit integer PCM.
+         */
+        fun fromWav(bytes: ByteArray): PcmClip? {
+            val buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)
+            if (bytes.size < 12 || tag(buffer, 0) != "RIFF" || tag(buffer, 8) != "WAVE") return null
+
+            var channels = 0
+            var sampleRate = 0
+            var position = 12
+            while (position + 8 <= bytes.size) {
+                val id = tag(buffer, position)
+                val size = buffer.getInt(position + 4)
+                val body = position + 8
+                if (size < 0) return null
+                when (id) {
+                    "fmt " -> {
+                        if (buffer.getShort(body).toInt() != FORMAT_PCM) return null
+                        channels = buffer.getShort(body + 2).toInt()
+                        sampleRate = buffer.getInt(body + 4)
+                        if (buffer.getShort(body + 14).toInt() != 16) return null
+                    }
+                    "data" -> {
+                        if (channels <= 0 || sampleRate <= 0) return null
+                        // Engines that stream the file may leave the size unset; take what is there
+                        val length = minOf(size, bytes.size - body)
+                        return PcmClip(readSamples(buffer, body, length, channels), sampleRate)
+                    }
+                }
+                position = body + size + (size and 1)
+            }
+            return null
+        }
+
+        private fun readSamples(buffer: ByteBuffer, offset: Int, length: Int, channels: Int): ShortArray {
+            val frames = length / (2 * channels)
+            val samples = ShortArray(frames)
+            var p = offset
+            for (i in 0 until frames) {
+                var sum = 0
+                for (c in 0 until channels) {
+                    sum += buffer.getShort(p)
+                    p += 2
+                }
+                samples[i] = (sum / channels).toShort()
+            }
+            return samples
+        }
+
+        private fun tag(buffer: ByteBuffer, offset: Int): String =
+            String(CharArray(4) { (buffer.get(offset + it).toInt() and 0xFF).toChar() })
+    }
+}
@@ -0,0 +1,102 @@
+package com.zendalona.zmantra.core.utility.audio
+
+import android.util.Log
+import com.zendalona.zmantra.core.utility.common.TTSUtility
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlinx.coroutines.withTimeoutOrNull
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.coroutines.resume
+
+/**
+ * Spoken tokens (numbers, operator words) decoded to [PcmClip]s. Each token is read from the
+ * shared [ClipStore] when the current voice already rendered it, and synthesized into the store
+ * otherwise, so later sessions skip synthesis entirely. Concurrent requests for one token share a
+ * single [Deferred]. Live speech flushes queued synthesis, so a failed render is retried a few
+ * times before the token is dropped for the next request to try again.
+ */
+class PcmClipCache(
+    private val tts: TTSUtility,
+    private val store: ClipStore,
+    private val scope: CoroutineScope
+) {
+
+    private val clips = ConcurrentHashMap<String, Deferred<PcmClip?>>()
+
+    /** Starts synthesizing [tokens] in the background. */
+    fun prefetch(tokens: Collection<String>) {
+        tokens.filter { it.isNotBlank() }.forEach { token -> scope.launch { get(token) } }
+    }
+
+    suspend fun get(token: String): PcmClip? {
+        if (token.isBlank()) return null
+        val load = clips.computeIfAbsent(token) {
+            scope.async(Dispatchers.IO, start = CoroutineStart.LAZY) { synthesize(token) }
+        }
+        val clip = load.await()
+        if (clip == null) clips.remove(token, load)
+        return clip
+    }
+
+    private suspend fun synthesize(token: String): PcmClip? {
+        // The voice is part of the key and unknown until the engine is bound
+        if (!awaitReady()) return null
+        val key = ClipStore.Key(tts.locale, tts.voiceId, tts.speechRate, token)
+        val file = store.get(key) ?: render(key) ?: return null
+        return try {
+            PcmClip.fromWav(file.readBytes())
+        } catch (e: IOException) {
+            Log.e(TAG, "Failed to read clip: $token", e)
+            file.delete()
+            null
+        }
+    }
+
+    private suspend fun awaitReady(): Boolean {
+        if (tts.isReady) return true
+        return withTimeoutOrNull(READY_TIMEOUT_MS) {
+            suspendCancellableCoroutine { cont ->
+                tts.whenReady { if (cont.isActive) cont.resume(true) }
+            }
+        } ?: false
+    }
+
+    private suspend fun render(key: ClipStore.Key): File? {
+        repeat(MAX_ATTEMPTS) { attempt ->
+            if (attempt > 0) delay(RETRY_DELAY_MS)
+            renderOnce(key)?.let { return it }
+        }
+        Log.w(TAG, "Giving up on clip: ${key.token}")
+        return null
+    }
+
+    private suspend fun renderOnce(key: ClipStore.Key): File? {
+        val scratch = store.scratchFile(key)
+        try {
+            val written = suspendCancellableCoroutine { cont ->
+                tts.synthesizeToFile(key.token, scratch) { success -> if (cont.isActive) cont.resume(success) }
+            }
+            return if (written) store.commit(key, scratch) else null
+        } finally {
+            // Gone already once committed
+            scratch.delete()
+        }
+    }
+
+    private companion object {
+        const val TAG = "PcmClipCache"
+        const val READY_TIMEOUT_MS = 5000L
+        const val MAX_ATTEMPTS = 3
+        // Short enough to still beat the question prompt; a re-queued render is only flushed by
+        // the next utterance
+        const val RETRY_DELAY_MS = 300L
+    }
+}
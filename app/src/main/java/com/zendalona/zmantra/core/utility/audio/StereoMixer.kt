@@ -0,0 +1,65 @@
+package com.zendalona.zmantra.core.utility.audio
+
+/**
+ * Lays spoken clips one after another into a single interleaved stereo buffer, each panned to
+ * the left, centre or right. Gaps are counted in samples, so the timing is exact no matter how
+ * long each clip turned out to be.
+ */
+object StereoMixer {
+
+    enum class Pan(val left: Float, val right: Float) {
+        LEFT(1f, 0f),
+        CENTER(1f, 1f),
+        RIGHT(0f, 1f)
+    }
+
+    class Segment(val clip: PcmClip, val pan: Pan)
+
+    /** Interleaved L/R 16-bit samples at [sampleRate]. */
+    class StereoBuffer(val samples: ShortArray, val sampleRate: Int) {
+        val frames: Int get() = samples.size / 2
+    }
+
+    /** Mixes [segments] at the first clip's sample rate with [gapMs] of silence between them. */
+    fun mix(segments: List<Segment>, gapMs: Int): StereoBuffer {
+        require(segments.isNotEmpty()) { "Nothing to mix" }
+        val sampleRate = segments[0].clip.sampleRate
+        val clips = segments.map { resample(it.clip, sampleRate) }
+        val gap = (sampleRate.toLong() * gapMs / 1000).toInt()
+
+        val frames = clips.sumOf { it.size } + gap * (clips.size - 1)
+        val out = ShortArray(frames * 2)
+        var frame = 0
+        for (i in segments.indices) {
+            val pan = segments[i].pan
+            for (sample in clips[i]) {
+                out[frame * 2] = scale(sample, pan.left)
+                out[frame * 2 + 1] = scale(sample, pan.right)
+                frame++
+            }
+            frame += gap
+        }
+        return StereoBuffer(out, sampleRate)
+    }
+
+    private fun scale(sample: Short, gain: Float): Short = when (gain) {
+        0f -> 0
+        1f -> sample
+        else -> (sample * gain).toInt().coerceIn(Short.MIN_VALUE.toInt(), Short.MAX_VALUE.toInt()).toShort()
+    }
+
+    /** Linear interpolation; engines normally use one rate, so this is rarely more than a copy. */
+    internal fun resample(clip: PcmClip, targetRate: Int): ShortArray {
+        if (clip.sampleRate == targetRate || clip.samples.isEmpty()) return clip.samples
+        val source = clip.samples
+        val length = (source.size.toLong() * targetRate / clip.sampleRate).toInt()
+        val step = clip.sampleRate.toDouble() / targetRate
+        return ShortArray(length) { i ->
+            val position = i * step
+            val index = position.toInt().coerceAtMost(source.size - 1)
+            val nextIndex = (index + 1).coerceAtMost(source.size - 1)
+            val fraction = position - index
+            (source[index] + (source[nextIndex] - source[index]) * fraction).toInt().toShort()
+        }
+    }
+}
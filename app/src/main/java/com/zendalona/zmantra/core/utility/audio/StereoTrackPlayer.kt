@@ -0,0 +1,56 @@
+package com.zendalona.zmantra.core.utility.audio
+
+import android.media.AudioAttributes
+import android.media.AudioFormat
+import android.media.AudioTrack
+import android.util.Log
+
+/** Plays one [StereoMixer.StereoBuffer] at a time through a static [AudioTrack]. */
+class StereoTrackPlayer {
+
+    private var track: AudioTrack? = null
+
+    fun play(buffer: StereoMixer.StereoBuffer) {
+        stop()
+        try {
+            val newTrack = AudioTrack.Builder()
+                .setAudioAttributes(
+                    AudioAttributes.Builder()
+                        .setUsage(AudioAttributes.USAGE_GAME)
+                        .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                        .build()
+                )
+                .setAudioFormat(
+                    AudioFormat.Builder()
+                        .setEncoding(AudioFormat.ENCODING_PCM_16BIT)
+                        .setChannelMask(AudioFormat.CHANNEL_OUT_STEREO)
+                        .setSampleRate(buffer.sampleRate)
+                        .build()
+                )
+                .setTransferMode(AudioTrack.MODE_STATIC)
+                .setBufferSizeInBytes(buffer.samples.size * 2)
+                .build()
+            newTrack.write(buffer.samples, 0, buffer.samples.size)
+            newTrack.play()
+            track = newTrack
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to play stereo buffer", e)
+        }
+    }
+
+    fun stop() {
+        track?.let {
+            try {
+                it.stop()
+            } catch (e: IllegalStateException) {
+                // Never started
+            }
+            it.release()
+        }
+        track = null
+    }
+
+    private companion object {
+        const val TAG = "StereoTrackPlayer"
+    }
+}
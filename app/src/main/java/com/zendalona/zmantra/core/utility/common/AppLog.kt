@@ -0,0 +1,26 @@
+package com.zendalona.zmantra.core.utility.common
+
+import android.util.Log
+import com.zendalona.zmantra.BuildConfig
+
+/**
+ * Debug logging that costs nothing when it is switched off.
+ *
+ * [ENABLED] is `BuildConfig.DEBUG_LOGS`, a compile-time constant that is false in release
+ * builds. [d] and [v] are inline and take the message as a lambda, so in release the compiler
+ * drops the whole call and no message string is ever built. Java code cannot inline the lambda
+ * and guards instead: `if (AppLog.ENABLED) Log.d(TAG, "..." + value);`. Warnings and errors
+ * always log and keep using [Log] directly.
+ */
+object AppLog {
+
+    const val ENABLED = BuildConfig.DEBUG_LOGS
+
+    inline fun v(tag: String, message: () -> String) {
+        if (ENABLED) Log.v(tag, message())
+    }
+
+    inline fun d(tag: String, message: () -> String) {
+        if (ENABLED) Log.d(tag, message())
+    }
+}
@@ -0,0 +1,28 @@
+package com.zendalona.zmantra.core.utility.common
+
+import android.content.Context
+import com.zendalona.zmantra.R
+
+/**
+ * Phrases spoken often enough to be worth pre-synthesizing, in warm-up order: answer feedback
+ * first, since it must start right after a tap, then numbers, days and compass directions.
+ */
+object CommonPhrases {
+
+    private const val MAX_NUMBER = 100
+
+    private val DAYS = listOf(
+        R.string.monday, R.string.tuesday, R.string.wednesday, R.string.thursday,
+        R.string.friday, R.string.saturday, R.string.sunday
+    )
+
+    /** Phrases in the language of [context]'s resources. */
+    fun collect(context: Context): List<String> = buildList {
+        addAll(DialogUtils.feedbackMessages(context))
+        add(context.getString(R.string.moving_to_next_question))
+        add(context.getString(R.string.shake_game_over))
+        for (n in 0..MAX_NUMBER) add(n.toString())
+        DAYS.forEach { add(context.getString(it)) }
+        addAll(context.resources.getStringArray(R.array.compass_directions))
+    }
+}
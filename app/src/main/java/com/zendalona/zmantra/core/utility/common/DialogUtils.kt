@@ -46,6 +46,10 @@ object DialogUtils {
 
     data class DialogData(val messageRes: List<Int>, val drawableRes: List<Int>)
 
+    /** Every message a result dialog can speak, for pre-synthesis by [SpeechClipCache]. */
+    fun feedbackMessages(context: Context): List<String> =
+        appreciationData.values.flatMap { data -> data.messageRes.map { context.getString(it) } }
+
     fun showResultDialog(
         context: Context,
         inflater: LayoutInflater,
@@ -149,7 +153,7 @@ object DialogUtils {
                 Glide.with(context).asGif().load(it).into(gifView)
             }
 
-            ttsUtility?.speak(speakText ?: selectedMessage.orEmpty())
+            ttsUtility?.speakFeedback(speakText ?: selectedMessage.orEmpty())
 
             Handler(Looper.getMainLooper()).postDelayed({
                 overlay.visibility = View.GONE
@@ -170,7 +174,7 @@ object DialogUtils {
 
             dialog.show()
 
-            ttsUtility?.speak(speakText ?: message ?: grade ?: "")
+            ttsUtility?.speakFeedback(speakText ?: message ?: grade ?: "")
 
             Handler(Looper.getMainLooper()).postDelayed({
                 dialog.dismiss()
@@ -0,0 +1,188 @@
+package com.zendalona.zmantra.core.utility.common
+
+/**
+ * Turns a math expression such as `-3.5 + (12 / 4)` into words for text-to-speech.
+ *
+ * The expression is scanned once, left to right, with a small state machine: a `-` where an
+ * operand is expected is read as "negative", decimals are read digit by digit after "point", and
+ * `1,000` is a grouped number while `1,2` is a list. Words come from a per-language [Lexicon],
+ * and results are cached, so repeating a question costs a map lookup.
+ */
+object MathVerbalizer {
+
+    class Lexicon(
+        val plus: String,
+        val minus: String,
+        val times: String,
+        val divide: String,
+        val percent: String,
+        val and: String,
+        val negative: String,
+        val point: String,
+        val equals: String,
+        val open: String,
+        val close: String,
+        val power: String
+    )
+
+    private val lexicons = mapOf(
+        "en" to Lexicon(
+            "plus", "minus", "multiplied by", "divided by", "percentage of", "and",
+            "negative", "point", "equals", "open bracket", "close bracket", "to the power of"
+        ),
+        "ml" to Lexicon(
+            "പ്ലസ്", "മൈനസ്", "ഗുണം", "ഹരണം", "ശതമാനം", "ഒപ്പം",
+            "നെഗറ്റീവ്", "പോയിന്റ്", "സമം", "ബ്രാക്കറ്റ് തുറക്കുക", "ബ്രാക്കറ്റ് അടയ്ക്കുക", "ന്റെ ഘാതം"
+        ),
+        "hi" to Lexicon(
+            "जमा", "घटा", "गुणा", "भाग", "प्रतिशत", "और",
+            "ऋण", "दशमलव", "बराबर", "कोष्ठक खोलो", "कोष्ठक बंद", "की घात"
+        ),
+        "ar" to Lexicon(
+            "زائد", "ناقص", "ضرب", "قسمة", "بالمئة من", "و",
+            "سالب", "فاصلة", "يساوي", "قوس مفتوح", "قوس مغلق", "أس"
+        ),
+        "sa" to Lexicon(
+            "धन", "ऋण", "गुणितम्", "भाजितम्", "प्रतिशतम्", "च",
+            "ऋणात्मकम्", "दशमलवम्", "समम्", "कोष्ठकारम्भः", "कोष्ठकान्तः", "घातः"
+        ),
+        "ta" to Lexicon(
+            "கூட்டல்", "கழித்தல்", "பெருக்கல்", "வகுத்தல்", "சதவீதம்", "மற்றும்",
+            "எதிர்மறை", "புள்ளி", "சமம்", "அடைப்புக்குறி திற", "அடைப்புக்குறி மூடு", "அடுக்கு"
+        )
+    )
+
+    private const val CACHE_SIZE = 256
+
+    // Access-ordered, so the eldest entry is the least recently spoken expression
+    private val cache = object : LinkedHashMap<String, String>(CACHE_SIZE, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, String>) = size > CACHE_SIZE
+    }
+
+    /** Spoken form of [expression] in [language]; unknown languages use English words. */
+    fun verbalize(expression: String, language: String = "en"): String {
+        val key = "$language:$expression"
+        synchronized(cache) { cache[key]?.let { return it } }
+
+        val spoken = render(expression, lexicons[language] ?: lexicons.getValue("en"))
+        synchronized(cache) { cache[key] = spoken }
+        return spoken
+    }
+
+    private enum class Kind { NONE, TEXT, NUMBER, WORD }
+
+    internal fun render(expression: String, lexicon: Lexicon): String {
+        val out = StringBuilder(expression.length * 3)
+        var last = Kind.NONE
+        // True where a '-' would be a sign rather than a subtraction
+        var expectOperand = true
+
+        fun separate() {
+            if (out.isNotEmpty() && out[out.length - 1] != ' ') out.append(' ')
+        }
+
+        fun word(text: String) {
+            separate()
+            out.append(text)
+            last = Kind.WORD
+        }
+
+        var i = 0
+        val n = expression.length
+        while (i < n) {
+            val c = expression[i]
+            val next = if (i + 1 < n) expression[i + 1] else ' '
+
+            when {
+                c.isWhitespace() -> {
+                    separate()
+                    if (last == Kind.TEXT || last == Kind.NONE) expectOperand = true
+                    i++
+                }
+
+                c.isDigit() || (c == '.' && next.isDigit()) -> {
+                    if (last == Kind.WORD || last == Kind.NUMBER) separate()
+                    i = number(expression, i, out, lexicon)
+                    last = Kind.NUMBER
+                    expectOperand = false
+                }
+
+                isMinus(c) && expectOperand && (next.isDigit() || next == '.') -> {
+                    word(lexicon.negative)
+                    i++
+                }
+
+                else -> {
+                    val operator = operatorWord(c, lexicon)
+                    if (operator != null) {
+                        word(operator)
+                        expectOperand = c != ')' && c != ']'
+                    } else {
+                        if (last == Kind.WORD) separate()
+                        out.append(c)
+                        last = Kind.TEXT
+                        expectOperand = false
+                    }
+                    i++
+                }
+            }
+        }
+
+        var end = out.length
+        while (end > 0 && out[end - 1] == ' ') end--
+        out.setLength(end)
+        return out.toString()
+    }
+
+    /** Appends the number starting at [start] and returns the index just past it. */
+    private fun number(expression: String, start: Int, out: StringBuilder, lexicon: Lexicon): Int {
+        val n = expression.length
+        var i = start
+        while (i < n) {
+            val c = expression[i]
+            if (c.isDigit()) {
+                out.append(c)
+                i++
+            } else if (c == ',' && isDigitGroup(expression, i + 1)) {
+                // Thousands separator, not a list
+                i++
+            } else {
+                break
+            }
+        }
+
+        if (i + 1 < n && expression[i] == '.' && expression[i + 1].isDigit()) {
+            if (i > start) out.append(' ')
+            out.append(lexicon.point)
+            i++
+            while (i < n && expression[i].isDigit()) {
+                out.append(' ').append(expression[i])
+                i++
+            }
+        }
+        return i
+    }
+
+    // Exactly three digits, then something that is not a digit
+    private fun isDigitGroup(expression: String, from: Int): Boolean {
+        if (from + 3 > expression.length) return false
+        for (k in from until from + 3) if (!expression[k].isDigit()) return false
+        return from + 3 == expression.length || !expression[from + 3].isDigit()
+    }
+
+    private fun isMinus(c: Char) = c == '-' || c == '−' || c == '–'
+
+    private fun operatorWord(c: Char, lexicon: Lexicon): String? = when (c) {
+        '+' -> lexicon.plus
+        '-', '−', '–' -> lexicon.minus
+        '*', '×' -> lexicon.times
+        '/', '÷' -> lexicon.divide
+        '%' -> lexicon.percent
+        ',' -> lexicon.and
+        '=' -> lexicon.equals
+        '^' -> lexicon.power
+        '(', '[' -> lexicon.open
+        ')', ']' -> lexicon.close
+        else -> null
+    }
+}
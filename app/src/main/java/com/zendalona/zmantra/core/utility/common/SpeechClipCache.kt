@@ -0,0 +1,192 @@
+package com.zendalona.zmantra.core.utility.common
+
+import android.media.AudioAttributes
+import android.media.SoundPool
+import android.os.Handler
+import android.os.Looper
+import android.util.Log
+import com.zendalona.zmantra.core.utility.audio.ClipStore
+import java.io.File
+import java.io.RandomAccessFile
+import java.util.ArrayDeque
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.math.roundToInt
+
+/**
+ * Pre-synthesized audio for the phrases the app speaks over and over: grade messages, "moving to
+ * next question", numbers, day and compass names.
+ *
+ * [warm] renders each phrase once per locale, voice and speech rate into the shared [ClipStore]
+ * and loads it into a [SoundPool], which keeps the decoded PCM of this hot set in memory. [play]
+ * then starts a clip in a few milliseconds instead of waiting for live synthesis. Stored clips
+ * survive restarts, so later launches only reload them.
+ */
+class SpeechClipCache(private val store: ClipStore) {
+
+    /** Renders one phrase to a file; [SpeechEngine.synthesizeToFile] in practice. */
+    fun interface Synthesizer {
+        fun synthesize(text: String, file: File, callback: SpeechEngine.Callback)
+    }
+
+    private class Clip(val soundId: Int, val durationMs: Long)
+
+    private class Job(val key: String, val text: String, val storeKey: ClipStore.Key) {
+        var attempts = 0
+    }
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    private val soundPool = SoundPool.Builder()
+        .setMaxStreams(2)
+        .setAudioAttributes(
+            AudioAttributes.Builder()
+                .setUsage(AudioAttributes.USAGE_GAME)
+                .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
+                .build()
+        )
+        .build()
+
+    private val clips = ConcurrentHashMap<String, Clip>()
+    private val loading = ConcurrentHashMap<Int, Pair<String, Long>>()
+    @Volatile
+    private var streamId = 0
+
+    // Warm-up state, main thread only
+    private val queue = ArrayDeque<Job>()
+    private var warming = false
+    private var synthesizer: Synthesizer? = null
+
+    init {
+        // One listener for every load, unlike a per-load listener that the next load overwrites
+        soundPool.setOnLoadCompleteListener { pool, soundId, status ->
+            val (key, durationMs) = loading.remove(soundId) ?: return@setOnLoadCompleteListener
+            if (status == 0) {
+                clips[key] = Clip(soundId, durationMs)
+            } else {
+                Log.w(TAG, "Failed to load clip $key")
+                pool.unload(soundId)
+            }
+        }
+    }
+
+    /**
+     * Plays the cached clip for [text] in [voice], if there is one, and returns its length in
+     * milliseconds; returns -1 when the phrase has to be synthesized live.
+     */
+    fun play(locale: Locale, voice: String, rate: Float, text: String): Long {
+        val clip = clips[key(locale, voice, rate, text)] ?: return -1
+        soundPool.stop(streamId)
+        streamId = soundPool.play(clip.soundId, 1f, 1f, 1, 0, 1f)
+        return if (streamId != 0) clip.durationMs else -1
+    }
+
+    fun stop() {
+        soundPool.stop(streamId)
+        streamId = 0
+    }
+
+    /**
+     * Queues [phrases] for one locale, voice and rate, most important first, and synthesizes them
+     * one at a time. Clips of other locales, voices and rates are unloaded. Main thread only.
+     */
+    fun warm(locale: Locale, voice: String, rate: Float, phrases: List<String>, synthesizer: Synthesizer) {
+        this.synthesizer = synthesizer
+        val prefix = prefix(locale, voice, rate)
+        clips.keys.filterNot { it.startsWith(prefix) }.forEach { key ->
+            clips.remove(key)?.let { soundPool.unload(it.soundId) }
+        }
+
+        queue.clear()
+        phrases.distinct().forEach { text ->
+            val key = key(locale, voice, rate, text)
+            if (key !in clips) queue.add(Job(key, text, ClipStore.Key(locale, voice, rate, text)))
+        }
+        AppLog.d(TAG) { "Warming ${queue.size} clips for $prefix" }
+        if (!warming) pump()
+    }
+
+    private fun pump() {
+        val job = queue.peekFirst()
+        if (job == null) {
+            warming = false
+            return
+        }
+        warming = true
+
+        val stored = store.get(job.storeKey)
+        if (stored != null) {
+            queue.pollFirst()
+            load(job, stored)
+            mainHandler.post { pump() }
+            return
+        }
+
+        val scratch = store.scratchFile(job.storeKey)
+        synthesizer?.synthesize(job.text, scratch) { success ->
+            mainHandler.post {
+                val file = if (success) store.commit(job.storeKey, scratch) else null
+                if (!success) scratch.delete()
+
+                if (queue.peekFirst() !== job) {
+                    // warm() replaced the queue meanwhile; the clip is stored for next time
+                    pump()
+                } else if (file != null) {
+                    queue.pollFirst()
+                    load(job, file)
+                    pump()
+                } else {
+                    // Live speech flushes queued synthesis, so back off and try again
+                    if (++job.attempts >= MAX_ATTEMPTS) {
+                        Log.w(TAG, "Giving up on clip: ${job.text}")
+                        queue.pollFirst()
+                    }
+                    mainHandler.postDelayed({ pump() }, RETRY_DELAY_MS)
+                }
+            }
+        }
+    }
+
+    private fun load(job: Job, file: File) {
+        val durationMs = try {
+            wavDurationMs(file)
+        } catch (e: Exception) {
+            Log.w(TAG, "Discarding unreadable clip ${file.name}", e)
+            file.delete()
+            return
+        }
+        val soundId = soundPool.load(file.path, 1)
+        if (soundId != 0) loading[soundId] = job.key to durationMs
+    }
+
+    private fun wavDurationMs(file: File): Long = RandomAccessFile(file, "r").use { wav ->
+        val header = ByteArray(WAV_HEADER_SIZE)
+        wav.readFully(header)
+        durationMs(header, wav.length())
+    }
+
+    companion object {
+        private const val TAG = "SpeechClipCache"
+        private const val WAV_HEADER_SIZE = 44
+        private const val MAX_ATTEMPTS = 3
+        private const val RETRY_DELAY_MS = 2000L
+
+        // Same parts as ClipStore.Key, so a changed voice never plays clips of the old one
+        private fun prefix(locale: Locale, voice: String, rate: Float) =
+            "${locale.toLanguageTag()}-$voice-r${(rate * 100).roundToInt()}"
+
+        internal fun key(locale: Locale, voice: String, rate: Float, text: String) =
+            "${prefix(locale, voice, rate)}/$text"
+
+        /** Playback length of a canonical 44-byte-header PCM WAV file of [fileLength] bytes. */
+        internal fun durationMs(header: ByteArray, fileLength: Long): Long {
+            require(String(header, 0, 4, Charsets.US_ASCII) == "RIFF") { "Not a WAV file" }
+            val byteRate = (header[28].toInt() and 0xFF) or
+                    ((header[29].toInt() and 0xFF) shl 8) or
+                    ((header[30].toInt() and 0xFF) shl 16) or
+                    ((header[31].toInt() and 0xFF) shl 24)
+            require(byteRate > 0) { "Invalid byte rate $byteRate" }
+            return (fileLength - WAV_HEADER_SIZE) * 1000 / byteRate
+        }
+    }
+}
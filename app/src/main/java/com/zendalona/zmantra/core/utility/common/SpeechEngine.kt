@@ -0,0 +1,322 @@
+package com.zendalona.zmantra.core.utility.common
+
+import android.content.Context
+import android.os.Bundle
+import android.os.Handler
+import android.os.Looper
+import android.os.SystemClock
+import android.speech.tts.TextToSpeech
+import android.speech.tts.UtteranceProgressListener
+import android.util.Log
+import androidx.lifecycle.DefaultLifecycleObserver
+import androidx.lifecycle.LifecycleOwner
+import androidx.lifecycle.ProcessLifecycleOwner
+import com.zendalona.zmantra.core.utility.audio.ClipStore
+import com.zendalona.zmantra.core.Enum.SpeechPriority
+import dagger.hilt.EntryPoint
+import dagger.hilt.InstallIn
+import dagger.hilt.android.EntryPointAccessors
+import dagger.hilt.components.SingletonComponent
+import java.io.File
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * The app's single [TextToSpeech] instance, bound once at startup and shared by every screen.
+ *
+ * Binding the TTS service takes hundreds of milliseconds, so screens no longer create their own
+ * engine: they open a [TTSUtility] session, which carries its own locale and speech rate and
+ * attaches to this engine. Utterances go through a [SpeechScheduler], which orders them by
+ * [SpeechPriority]. Requests made before the engine is ready wait in a queue and run when
+ * initialization completes. Speech stops when the app goes to the background.
+ *
+ * Phrases warmed into [clips] are played from memory instead of being synthesized live.
+ */
+class SpeechEngine(
+    context: Context,
+    private val clips: SpeechClipCache,
+    /** Disk store of synthesized clips, shared with modes that mix their own audio. */
+    val clipStore: ClipStore
+) : DefaultLifecycleObserver {
+
+    /** Completion of one utterance or synthesis request; `success` is false on engine errors. */
+    fun interface Callback {
+        fun onDone(success: Boolean)
+    }
+
+    private val appContext = context.applicationContext
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private val lock = Any()
+
+    // Guarded by lock
+    private var tts: TextToSpeech? = null
+    private var ready = false
+    private val pending = ArrayList<Runnable>()
+    private var sessions = 0
+
+    // Guarded by voiceLock; voice changes and the utterance they apply to must not interleave
+    private val voiceLock = Any()
+    private var appliedLocale: Locale? = null
+
+    // Voice that cached clips are played for. Refreshed when the engine binds and when the app
+    // returns to the foreground, since the voice can only be changed in system settings
+    @Volatile
+    private var clipVoice = UNKNOWN_VOICE
+
+    private val callbacks = ConcurrentHashMap<String, Callback>()
+    private val nextId = AtomicLong()
+
+    private val scheduler = SpeechScheduler(object : SpeechScheduler.Output {
+        override fun start(request: SpeechRequest) = play(request)
+        override fun halt() = silence()
+    })
+
+    /** Starts binding the TTS service if it is not bound yet. Safe to call repeatedly. */
+    fun bind() {
+        synchronized(lock) {
+            if (tts != null) return
+            val start = SystemClock.elapsedRealtime()
+            tts = TextToSpeech(appContext) { status -> onInit(status, start) }
+        }
+    }
+
+    /** Stops speech whenever the whole app leaves the foreground. Main thread only. */
+    fun observeProcessLifecycle() {
+        ProcessLifecycleOwner.get().lifecycle.addObserver(this)
+    }
+
+    override fun onStart(owner: LifecycleOwner) {
+        if (isReady) clipVoice = voiceId
+    }
+
+    override fun onStop(owner: LifecycleOwner) {
+        scheduler.cancel { true }
+    }
+
+    val isReady: Boolean
+        get() = synchronized(lock) { ready }
+
+    /** The TTS engine package and its default voice, for keying stored clips; see [ClipStore]. */
+    val voiceId: String
+        get() {
+            val engine = synchronized(lock) { if (ready) tts else null } ?: return UNKNOWN_VOICE
+            return try {
+                "${engine.defaultEngine}/${engine.defaultVoice?.name}"
+            } catch (e: Exception) {
+                Log.w(TAG, "Cannot read the default voice", e)
+                UNKNOWN_VOICE
+            }
+        }
+
+    /** Runs [action] once the engine is bound, right away if it already is. */
+    fun whenReady(action: Runnable) {
+        runWhenReady { action.run() }
+    }
+
+    fun attach() {
+        val count = synchronized(lock) { ++sessions }
+        AppLog.d(TAG) { "Session attached ($count active)" }
+        bind()
+    }
+
+    /** Ends one session; its speech stops, the engine itself stays bound. */
+    fun detach(owner: Any) {
+        val count = synchronized(lock) { if (sessions > 0) sessions--; sessions }
+        AppLog.d(TAG) { "Session detached ($count active)" }
+        stop(owner)
+    }
+
+    /**
+     * Hands [text] to the [SpeechScheduler]: it interrupts lower-priority speech and anything with
+     * the same [coalesceKey], and otherwise waits its turn. [callback] may run on any thread.
+     */
+    fun speak(
+        owner: Any,
+        text: String,
+        locale: Locale,
+        rate: Float,
+        priority: SpeechPriority,
+        coalesceKey: String?,
+        callback: Callback? = null
+    ) {
+        scheduler.submit(SpeechRequest(owner, text, locale, rate, priority, coalesceKey, callback))
+    }
+
+    /** Renders [text] into [file] as WAV; [callback] runs on a binder thread when it is written. */
+    fun synthesizeToFile(text: String, locale: Locale, rate: Float, file: File, callback: Callback) {
+        runWhenReady { engine ->
+            val id = register(callback)
+            val result = synchronized(voiceLock) {
+                applyVoice(engine, locale, rate)
+                engine.synthesizeToFile(text, Bundle(), file, id)
+            }
+            if (result != TextToSpeech.SUCCESS) {
+                Log.e(TAG, "Failed to synthesize: $text")
+                complete(id, false)
+            }
+        }
+    }
+
+    /**
+     * Pre-synthesizes [phrases] in one locale and rate for [SpeechClipCache], one at a time behind
+     * any live speech. Main thread only.
+     */
+    fun warmPhrases(locale: Locale, rate: Float, phrases: List<String>) {
+        // Stored clips are keyed by voice, which is only known once the engine is bound
+        whenReady {
+            mainHandler.post {
+                val voice = voiceId
+                clipVoice = voice
+                clips.warm(locale, voice, rate, phrases) { text, file, callback ->
+                    synthesizeToFile(text, locale, rate, file, callback)
+                }
+            }
+        }
+    }
+
+    /** Drops everything [owner] has queued or is speaking; other sessions keep playing. */
+    fun stop(owner: Any) {
+        scheduler.cancel { it.owner === owner }
+    }
+
+    /** Like [stop], but only for [owner]'s requests up to [maxPriority]. */
+    fun stop(owner: Any, maxPriority: SpeechPriority) {
+        scheduler.cancel { it.owner === owner && it.priority <= maxPriority }
+    }
+
+    private fun play(request: SpeechRequest) {
+        val start = SystemClock.elapsedRealtime()
+        val durationMs = clips.play(request.locale, clipVoice, request.rate, request.text)
+        if (durationMs >= 0) {
+            val engine = synchronized(lock) { if (ready) tts else null }
+            if (engine?.isSpeaking == true) engine.stop()
+            AppLog.d(TAG) { "Played cached clip in ${SystemClock.elapsedRealtime() - start} ms: ${request.text}" }
+            mainHandler.postDelayed({ scheduler.onFinished(request, true) }, durationMs)
+            return
+        }
+
+        runWhenReady { engine ->
+            // Superseded while the engine was still binding
+            if (!scheduler.isCurrent(request)) return@runWhenReady
+            clips.stop()
+            val id = register { success -> scheduler.onFinished(request, success) }
+            val result = synchronized(voiceLock) {
+                applyVoice(engine, request.locale, request.rate)
+                engine.speak(request.text, TextToSpeech.QUEUE_FLUSH, null, id)
+            }
+            if (result != TextToSpeech.SUCCESS) {
+                Log.e(TAG, "Failed to speak: ${request.text}")
+                complete(id, false)
+            }
+        }
+    }
+
+    private fun silence() {
+        clips.stop()
+        val engine = synchronized(lock) { if (ready) tts else null }
+        if (engine?.isSpeaking == true) {
+            engine.stop()
+            AppLog.d(TAG) { "Stopped speaking" }
+        }
+    }
+
+    private fun runWhenReady(action: (TextToSpeech) -> Unit) {
+        val engine = synchronized(lock) {
+            if (!ready) {
+                pending.add(Runnable { tts?.let(action) })
+                null
+            } else tts
+        }
+        if (engine == null) bind() else action(engine)
+    }
+
+    private fun onInit(status: Int, start: Long) {
+        if (status != TextToSpeech.SUCCESS) {
+            Log.e(TAG, "TTS initialization failed")
+            synchronized(lock) {
+                tts?.shutdown()
+                tts = null
+                pending.clear()
+            }
+            // Fail whatever was waiting so the scheduler does not hold on to it
+            scheduler.cancel { true }
+            callbacks.keys.toList().forEach { complete(it, false) }
+            return
+        }
+        val queued = synchronized(lock) {
+            tts?.setOnUtteranceProgressListener(progressListener)
+            ready = true
+            pending.toList().also { pending.clear() }
+        }
+        clipVoice = voiceId
+        AppLog.d(TAG) { "TTS bound in ${SystemClock.elapsedRealtime() - start} ms, running ${queued.size} queued requests" }
+        queued.forEach { it.run() }
+    }
+
+    private fun applyVoice(engine: TextToSpeech, locale: Locale, rate: Float) {
+        if (locale != appliedLocale) {
+            val result = engine.setLanguage(locale)
+            if (result == TextToSpeech.LANG_MISSING_DATA || result == TextToSpeech.LANG_NOT_SUPPORTED) {
+                Log.e(TAG, "TTS language $locale not supported, falling back to default (English)")
+                engine.setLanguage(Locale.ENGLISH)
+            }
+            appliedLocale = locale
+        }
+        engine.setSpeechRate(rate)
+    }
+
+    private fun register(callback: Callback?): String {
+        val id = "utterance-${nextId.incrementAndGet()}"
+        if (callback != null) callbacks[id] = callback
+        return id
+    }
+
+    private fun complete(id: String?, success: Boolean) {
+        id?.let { callbacks.remove(it)?.onDone(success) }
+    }
+
+    private val progressListener = object : UtteranceProgressListener() {
+        override fun onStart(utteranceId: String?) {}
+
+        override fun onDone(utteranceId: String?) = complete(utteranceId, true)
+
+        @Deprecated("Deprecated in Java")
+        override fun onError(utteranceId: String?) = complete(utteranceId, false)
+
+        override fun onStop(utteranceId: String?, interrupted: Boolean) = complete(utteranceId, false)
+    }
+
+    /** Lets classes Hilt does not construct, such as [TTSUtility], reach the shared engine. */
+    @EntryPoint
+    @InstallIn(SingletonComponent::class)
+    interface SpeechEngineEntryPoint {
+        fun speechEngine(): SpeechEngine
+    }
+
+    companion object {
+        private const val TAG = "SpeechEngine"
+        private const val UNKNOWN_VOICE = "unknown"
+
+        private val languageMap = mapOf(
+            "en" to Locale("en", "IN"), // English (India)
+            "ml" to Locale("ml"), // Malayalam
+            "hi" to Locale("hi"), // Hindi
+            "ar" to Locale("ar"), // Arabic
+            "sa" to Locale("sa"), // Sanskrit
+            "ta" to Locale("ta")  // Tamil
+        )
+
+        /** Speech locale for an app language code, English (India) when it is unknown. */
+        @JvmStatic
+        fun localeFor(language: String?): Locale =
+            languageMap[language] ?: Locale.forLanguageTag("en-IN")
+
+        @JvmStatic
+        fun get(context: Context): SpeechEngine =
+            EntryPointAccessors.fromApplication(
+                context.applicationContext,
+                SpeechEngineEntryPoint::class.java
+            ).speechEngine()
+    }
+}
@@ -0,0 +1,120 @@
+package com.zendalona.zmantra.core.utility.common
+
+import com.zendalona.zmantra.core.Enum.SpeechPriority
+import java.util.Locale
+
+/** One utterance waiting for or holding the speech output. */
+class SpeechRequest(
+    val owner: Any,
+    val text: String,
+    val locale: Locale,
+    val rate: Float,
+    val priority: SpeechPriority,
+    /** Requests sharing a key supersede each other, e.g. successive feedback messages. */
+    val coalesceKey: String?,
+    val callback: SpeechEngine.Callback?
+)
+
+/**
+ * Decides which [SpeechRequest] speaks next, replacing blanket `QUEUE_FLUSH`.
+ *
+ * - A request interrupts the current one if it has a higher [SpeechPriority] or the same
+ *   coalesce key; otherwise it waits, in priority order and FIFO within one priority.
+ * - Queued requests with the same coalesce key are dropped, so rapid input never piles up.
+ * - At most one [SpeechPriority.AMBIENT] request waits at a time.
+ *
+ * Every request's callback runs exactly once: `true` when it was spoken to the end, `false` when
+ * it was superseded, cancelled or failed. Safe to call from any thread; [Output] and callbacks
+ * are invoked outside the lock.
+ */
+class SpeechScheduler(private val output: Output) {
+
+    interface Output {
+        /** Starts speaking [request], cutting off anything still playing. */
+        fun start(request: SpeechRequest)
+
+        /** Silences the output; nothing is queued behind it. */
+        fun halt()
+    }
+
+    private val lock = Any()
+
+    // Guarded by lock
+    private var current: SpeechRequest? = null
+    private val queue = ArrayList<SpeechRequest>()
+
+    fun submit(request: SpeechRequest) {
+        val dropped = ArrayList<SpeechRequest>()
+        var start = false
+        synchronized(lock) {
+            val key = request.coalesceKey
+            if (key != null) removeQueued(dropped) { it.coalesceKey == key }
+            if (request.priority == SpeechPriority.AMBIENT) {
+                removeQueued(dropped) { it.priority == SpeechPriority.AMBIENT }
+            }
+
+            val playing = current
+            when {
+                playing == null -> start = true
+                request.priority > playing.priority ||
+                        (key != null && key == playing.coalesceKey) -> {
+                    dropped.add(playing)
+                    start = true
+                }
+                else -> enqueue(request)
+            }
+            if (start) current = request
+        }
+        dropped.forEach { it.callback?.onDone(false) }
+        if (start) output.start(request)
+    }
+
+    /** Reports that [request] stopped playing; ignored if it was already superseded. */
+    fun onFinished(request: SpeechRequest, success: Boolean) {
+        val next = synchronized(lock) {
+            if (current !== request) return
+            pollNext().also { current = it }
+        }
+        request.callback?.onDone(success)
+        next?.let(output::start)
+    }
+
+    /** Drops every queued or playing request matching [predicate]. */
+    fun cancel(predicate: (SpeechRequest) -> Boolean) {
+        val dropped = ArrayList<SpeechRequest>()
+        var interrupted = false
+        val next = synchronized(lock) {
+            removeQueued(dropped, predicate)
+            val playing = current
+            if (playing != null && predicate(playing)) {
+                dropped.add(playing)
+                interrupted = true
+                pollNext().also { current = it }
+            } else null
+        }
+        if (interrupted && next == null) output.halt()
+        dropped.forEach { it.callback?.onDone(false) }
+        next?.let(output::start)
+    }
+
+    /** True while [request] is the one that should be playing. */
+    fun isCurrent(request: SpeechRequest): Boolean = synchronized(lock) { current === request }
+
+    private fun enqueue(request: SpeechRequest) {
+        val index = queue.indexOfFirst { it.priority < request.priority }
+        if (index < 0) queue.add(request) else queue.add(index, request)
+    }
+
+    private fun pollNext(): SpeechRequest? = if (queue.isEmpty()) null else queue.removeAt(0)
+
+    private inline fun removeQueued(into: MutableList<SpeechRequest>, predicate: (SpeechRequest) -> Boolean) {
+        val iterator = queue.iterator()
+        while (iterator.hasNext()) {
+            val request = iterator.next()
+            if (predicate(request)) {
+                iterator.remove()
+                into.add(request)
+            }
+        }
+    }
+}
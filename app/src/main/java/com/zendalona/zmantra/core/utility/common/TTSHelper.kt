@@ -2,12 +2,8 @@ package com.zendalona.zmantra.core.utility.common
 
 
 object TTSHelper {
-    fun formatMathText(input: String): String {
-        return input.replace("+", " plus ")
-            .replace("-", " minus ")
-            .replace("*", " multiplied by ")
-            .replace("/", " divided by ")
-            .replace("%", " percentage of ")
-            .replace(",", " and ")
+    /** Spoken form of a math expression; see [MathVerbalizer]. */
+    fun formatMathText(input: String, language: String = "en"): String {
+        return MathVerbalizer.verbalize(input, language)
     }
 }
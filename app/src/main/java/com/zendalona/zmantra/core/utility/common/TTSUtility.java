@@ -1,105 +1,113 @@
 package com.zendalona.zmantra.core.utility.common;
 
 import android.content.Context;
-import android.speech.tts.TextToSpeech;
 import android.util.Log;
 
+import com.zendalona.zmantra.core.Enum.SpeechPriority;
+import com.zendalona.zmantra.core.utility.audio.ClipStore;
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper;
 
-import java.util.LinkedList;
+import java.io.File;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Queue;
 
+/**
+ * One screen's speech session on the shared {@link SpeechEngine}.
+ * Holds the screen's locale and speech rate; {@link #shutdown()} detaches from the engine
+ * instead of unbinding the TTS service.
+ */
 public class TTSUtility {
 
-    private TextToSpeech tts;
-    private boolean isInitialized = false;
-    private float speechRate = 1.0f; // default
-    private final Queue<String> speechQueue = new LinkedList<>();
+    /** Coalesce keys: a new question or feedback message supersedes the previous one. */
+    public static final String KEY_QUESTION = "question";
+    public static final String KEY_FEEDBACK = "feedback";
 
-    private final Map<String, Locale> languageMap = Map.of(
-            "en", new Locale("en", "IN"), // English (India)
-            "ml", new Locale("ml"), // Malayalam
-            "hi", new Locale("hi"), // Hindi
-            "ar", new Locale("ar"), // Arabic
-            "sa", new Locale("sa"), // Sanskrit
-            "ta", new Locale("ta")  // Tamil
-    );
+    private final SpeechEngine engine;
+    private final Locale locale;
+    private float speechRate = 1.0f; // default
+    private boolean attached;
 
     public TTSUtility(Context context) {
-        Log.d("TTSUtility", "Initializing TTS");
+        this(SpeechEngine.get(context), context);
+    }
+
+    public TTSUtility(SpeechEngine engine, Context context) {
+        this.engine = engine;
 
         // Get the selected language from LocaleHelper
         String selectedLanguage = LocaleHelper.getLanguage(context);
-        Locale selectedLocale = languageMap.getOrDefault(selectedLanguage, Locale.forLanguageTag("en-IN"));
-
-        tts = new TextToSpeech(context.getApplicationContext(), status -> {
-            if (status == TextToSpeech.SUCCESS) {
-                // Set the language based on LocaleHelper or fall back to default (English)
-                int result = tts.setLanguage(selectedLocale);
-
-                isInitialized = (result != TextToSpeech.LANG_MISSING_DATA &&
-                        result != TextToSpeech.LANG_NOT_SUPPORTED);
-                if (isInitialized) {
-                    tts.setSpeechRate(speechRate);
-                    Log.d("TTSUtility", "TTS initialized successfully with language: " + selectedLanguage + " and speech rate " + speechRate);
-
-                    // Speak queued texts
-                    while (!speechQueue.isEmpty()) {
-                        speakInternal(speechQueue.poll());
-                    }
-                } else {
-                    Log.e("TTSUtility", "TTS language not supported, falling back to default (English)");
-                    tts.setLanguage(Locale.ENGLISH); // Fallback to English if the selected language is not supported
-                }
-            } else {
-                Log.e("TTSUtility", "TTS initialization failed");
-            }
-        });
+        this.locale = SpeechEngine.localeFor(selectedLanguage);
+
+        engine.attach();
+        attached = true;
+        if (AppLog.ENABLED) Log.d("TTSUtility", "Attached speech session with language: " + selectedLanguage);
     }
 
     public void setSpeechRate(float rate) {
         speechRate = Math.max(0.5f, Math.min(rate, 3.0f)); // clamp between 0.5 and 3.0
-        if (isInitialized) {
-            tts.setSpeechRate(speechRate);
-            Log.d("TTSUtility", "Speech rate set to " + speechRate);
-        } else {
-            Log.d("TTSUtility", "Speech rate will be set after initialization: " + speechRate);
-        }
+        if (AppLog.ENABLED) Log.d("TTSUtility", "Speech rate set to " + speechRate);
     }
 
     public float getSpeechRate() {
         return speechRate;
     }
 
+    public Locale getLocale() {
+        return locale;
+    }
+
+    public boolean isReady() {
+        return engine.isReady();
+    }
+
+    /** The engine's current voice; part of every {@link ClipStore.Key}. */
+    public String getVoiceId() {
+        return engine.getVoiceId();
+    }
+
+    public ClipStore getClipStore() {
+        return engine.getClipStore();
+    }
+
+    /** Runs {@code action} once the engine is bound, right away if it already is. */
+    public void whenReady(Runnable action) {
+        engine.whenReady(action);
+    }
+
+    /** Speaks a question or instruction, replacing the previous one. */
     public void speak(String text) {
-        if (isInitialized) {
-            speakInternal(text);
-        } else {
-            Log.w("TTSUtility", "TTS not initialized yet, queuing text: " + text);
-            speechQueue.add(text);
-        }
+        speak(text, SpeechPriority.QUESTION, KEY_QUESTION, null);
+    }
+
+    /** Speaks {@code text} through the engine's scheduler; see {@link SpeechScheduler}. */
+    public void speak(String text, SpeechPriority priority, String coalesceKey, SpeechEngine.Callback callback) {
+        engine.speak(this, text, locale, speechRate, priority, coalesceKey, callback);
+        if (AppLog.ENABLED) Log.d("TTSUtility", "Speaking (" + priority + "): " + text + " at rate " + speechRate);
+    }
+
+    /** Speaks answer feedback, interrupting questions and replacing earlier feedback. */
+    public void speakFeedback(String text) {
+        speak(text, SpeechPriority.FEEDBACK, KEY_FEEDBACK, null);
     }
 
-    private void speakInternal(String text) {
-        tts.setSpeechRate(speechRate);
-        tts.speak(text, TextToSpeech.QUEUE_FLUSH, null, "utteranceId");
-        Log.d("TTSUtility", "Speaking: " + text + " at rate " + speechRate);
+    /** Renders {@code text} to a WAV file in this session's voice; see {@link SpeechEngine#synthesizeToFile}. */
+    public void synthesizeToFile(String text, File file, SpeechEngine.Callback callback) {
+        engine.synthesizeToFile(text, locale, speechRate, file, callback);
     }
 
     public void stop() {
-        if (tts != null && tts.isSpeaking()) {
-            tts.stop();
-            Log.d("TTSUtility", "Stopped speaking");
-        }
+        engine.stop(this);
+    }
+
+    /** Stops this session's speech up to {@code maxPriority}, leaving more urgent speech playing. */
+    public void stop(SpeechPriority maxPriority) {
+        engine.stop(this, maxPriority);
     }
 
     public void shutdown() {
-        if (tts != null) {
-            tts.stop();
-            tts.shutdown();
-            Log.d("TTSUtility", "TTS shut down");
+        if (attached) {
+            attached = false;
+            engine.detach(this);
+            if (AppLog.ENABLED) Log.d("TTSUtility", "Speech session detached");
         }
     }
 }
@@ -0,0 +1,111 @@
+package com.zendalona.zmantra.core.utility.common
+
+import android.content.Context
+import android.content.MutableContextWrapper
+import android.os.Looper
+import android.os.SystemClock
+import android.view.ViewGroup
+import android.webkit.WebView
+import android.webkit.WebViewClient
+import com.zendalona.zmantra.R
+
+/**
+ * Application-wide pool holding one pre-initialized [WebView] for the hint and user guide screens.
+ *
+ * The first WebView in a process pays for loading the Chromium engine. [warmUp] creates it during
+ * main-thread idle time after the splash screen; screens [acquire] it, and [release] resets it
+ * and puts it back. It is only lent again once that reset has finished loading, so a borrower's
+ * client never sees callbacks for the blank page. The WebView lives on a [MutableContextWrapper],
+ * so it can be re-parented to each activity without leaking the previous one.
+ */
+object WebViewPool {
+
+    private const val TAG = "WebViewPool"
+    private const val BLANK = "about:blank"
+
+    private var pooled: WebView? = null
+    // False while the pooled WebView is still loading the blank page from release()
+    private var pooledReady = false
+    private var warmCreateMs = 0L
+
+    /** Creates the pooled WebView the next time the main thread is idle. Main thread only. */
+    fun warmUp(context: Context) {
+        val appContext = context.applicationContext
+        Looper.myQueue().addIdleHandler {
+            if (pooled == null) {
+                val start = SystemClock.elapsedRealtime()
+                pooled = newWebView(appContext)
+                pooledReady = true
+                warmCreateMs = SystemClock.elapsedRealtime() - start
+                AppLog.d(TAG) { "Pre-warmed WebView in $warmCreateMs ms" }
+            }
+            false
+        }
+    }
+
+    /**
+     * Lends the pooled WebView, re-based on [context], or creates a new one if the pool is empty
+     * or its WebView is still being reset.
+     * Logs the time from this call to the first page becoming visible; [onPageFinished] runs
+     * after each page load completes.
+     */
+    fun acquire(context: Context, onPageFinished: (() -> Unit)? = null): WebView {
+        val start = SystemClock.elapsedRealtime()
+        val warm = if (pooledReady) pooled else null
+        if (warm != null) pooled = null
+
+        val webView = warm?.also { (it.context as MutableContextWrapper).baseContext = context }
+            ?: newWebView(context)
+        val createMs = SystemClock.elapsedRealtime() - start
+
+        webView.id = R.id.webView
+        webView.webViewClient = object : WebViewClient() {
+            private var painted = false
+
+            override fun onPageCommitVisible(view: WebView, url: String?) {
+                if (painted) return
+                painted = true
+                val firstPaintMs = SystemClock.elapsedRealtime() - start
+                if (warm != null) {
+                    AppLog.d(TAG) { "First paint in $firstPaintMs ms with pooled WebView (saved ~$warmCreateMs ms init)" }
+                } else {
+                    AppLog.d(TAG) { "First paint in $firstPaintMs ms with cold WebView ($createMs ms init)" }
+                }
+            }
+
+            override fun onPageFinished(view: WebView, url: String?) {
+                onPageFinished?.invoke()
+            }
+        }
+        return webView
+    }
+
+    /** Detaches [webView], clears its page and keeps it for the next screen. */
+    fun release(webView: WebView) {
+        (webView.parent as? ViewGroup)?.removeView(webView)
+
+        val wrapper = webView.context as? MutableContextWrapper
+        if (pooled != null || wrapper == null) {
+            webView.destroy()
+            return
+        }
+        wrapper.baseContext = webView.context.applicationContext
+        pooled = webView
+        pooledReady = false
+
+        webView.webViewClient = object : WebViewClient() {
+            override fun onPageFinished(view: WebView, url: String?) {
+                if (url == BLANK && view === pooled) pooledReady = true
+            }
+        }
+        webView.settings.javaScriptEnabled = false
+        webView.stopLoading()
+        webView.loadUrl(BLANK)
+        webView.clearHistory()
+    }
+
+    private fun newWebView(context: Context): WebView =
+        WebView(MutableContextWrapper(context)).apply {
+            settings.javaScriptEnabled = false
+        }
+}
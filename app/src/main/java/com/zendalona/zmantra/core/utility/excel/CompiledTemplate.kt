@@ -0,0 +1,256 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import android.util.Log
+import com.zendalona.zmantra.domain.model.GameQuestion
+import net.objecthunter.exp4j.Expression
+import net.objecthunter.exp4j.ExpressionBuilder
+import kotlin.random.Random
+
+/**
+ * A question row parsed once into placeholder slots and typed operand generators.
+ *
+ * [instantiate] draws fresh operand values and fills the question template without going
+ * through the regex engine or repeated `String.replace` passes. The answer template is built
+ * into an exp4j [Expression] once and re-evaluated with `setVariable` for every question.
+ */
+class CompiledTemplate private constructor(
+    private val question: Slots,
+    private val answer: Slots,
+    private val operands: Array<OperandGenerator>,
+    private val hasNumericAnswer: Boolean,
+    private val answerExpression: Expression?,
+    val timeLimit: Int
+) {
+
+    fun instantiate(random: Random = Random.Default): GameQuestion {
+        if (!hasNumericAnswer) {
+            val words = Array(operands.size) { operands[it].next(random) }
+            return GameQuestion(question.render(words), 0, timeLimit)
+        }
+
+        val numbers = nextNumbers(random)
+        val values = Array(numbers.size) { numbers[it].toString() }
+        return GameQuestion(question.render(values), evaluateAnswer(numbers, values), timeLimit)
+    }
+
+    /** Draws one value per operand; only valid for numeric modes. */
+    internal fun nextNumbers(random: Random): IntArray =
+        IntArray(operands.size) { (operands[it] as IntOperand).nextInt(random) }
+
+    /** Answer template with [values] spliced in, i.e. the text the answer expression stands for. */
+    internal fun renderAnswer(values: Array<String>): String = answer.render(values)
+
+    /**
+     * Evaluates the answer for one set of operands through the prebuilt exp4j [Expression],
+     * falling back to parsing the rendered text when the template could not be precompiled.
+     */
+    internal fun evaluateAnswer(numbers: IntArray, values: Array<String>): Int {
+        val expression = answerExpression ?: return ExcelQuestionLoader.evaluateEquation(renderAnswer(values))
+        return try {
+            // Expression keeps its variables in a mutable map, so one evaluation at a time
+            synchronized(expression) {
+                for (i in numbers.indices) expression.setVariable(variableName(i), numbers[i].toDouble())
+                expression.evaluate().toInt()
+            }
+        } catch (e: Exception) {
+            Log.e(TAG, "Failed to evaluate: ${renderAnswer(values)}", e)
+            0
+        }
+    }
+
+    /** Template text split around `{x}` placeholders; `slots[i]` sits between `literals[i]` and `literals[i + 1]`. */
+    private class Slots(private val literals: Array<String>, private val slots: IntArray) {
+
+        private val literalLength = literals.sumOf { it.length }
+
+        /** Literal text around each slot, for checking what a placeholder is glued to. */
+        fun literalBefore(slot: Int) = literals[slot]
+        fun literalAfter(slot: Int) = literals[slot + 1]
+        val slotCount: Int get() = slots.size
+
+        fun render(values: Array<String>): String {
+            if (slots.isEmpty()) return literals[0]
+            val sb = StringBuilder(literalLength + slots.size * 4)
+            for (i in slots.indices) {
+                sb.append(literals[i]).append(values[slots[i]])
+            }
+            return sb.append(literals[slots.size]).toString()
+        }
+
+        companion object {
+            fun parse(template: String, variables: CharArray): Slots {
+                val literals = mutableListOf<String>()
+                val slots = mutableListOf<Int>()
+                var literalStart = 0
+                var i = 0
+                while (i + 2 < template.length) {
+                    val slot = if (template[i] == '{' && template[i + 2] == '}') {
+                        variables.indexOf(template[i + 1])
+                    } else -1
+                    if (slot >= 0) {
+                        literals.add(template.substring(literalStart, i))
+                        slots.add(slot)
+                        i += 3
+                        literalStart = i
+                    } else {
+                        i++
+                    }
+                }
+                literals.add(template.substring(literalStart))
+                return Slots(literals.toTypedArray(), slots.toIntArray())
+            }
+        }
+    }
+
+    sealed class OperandGenerator {
+        abstract fun next(random: Random): String
+    }
+
+    /** Integer operands; `3`, `1,4,9`, `2:7` and `a;b` (product) in the sheet's operand column. */
+    sealed class IntOperand : OperandGenerator() {
+        abstract fun nextInt(random: Random): Int
+        override fun next(random: Random): String = nextInt(random).toString()
+    }
+
+    class Constant(private val value: Int) : IntOperand() {
+        override fun nextInt(random: Random) = value
+    }
+
+    class Choice(private val values: IntArray) : IntOperand() {
+        override fun nextInt(random: Random) = values[random.nextInt(values.size)]
+    }
+
+    class Range(private val start: Int, private val endInclusive: Int) : IntOperand() {
+        override fun nextInt(random: Random) = random.nextInt(start, endInclusive + 1)
+    }
+
+    class Product(private val left: IntOperand, private val right: IntOperand) : IntOperand() {
+        override fun nextInt(random: Random) = left.nextInt(random) * right.nextInt(random)
+    }
+
+    /** Word choices used by the direction and drawing modes, e.g. `dNorth,South*`. */
+    class WordChoice(private val words: Array<String>) : OperandGenerator() {
+        override fun next(random: Random) = words[random.nextInt(words.size)]
+    }
+
+    companion object {
+        private const val TAG = "CompiledTemplate"
+        private val WORD_MODES = setOf("direction", "drawing")
+
+        /** Returns null when the operand spec does not define one value per variable. */
+        fun compile(row: QuestionRow): CompiledTemplate? {
+            val wordMode = row.mode in WORD_MODES
+            val variables = extractVariables(row.operands)
+            val operands = parseOperands(row.operands, wordMode)
+            if (variables.size != operands.size) return null
+
+            val answer = Slots.parse(row.answerTemplate, variables)
+            return CompiledTemplate(
+                question = Slots.parse(row.template, variables),
+                answer = answer,
+                operands = operands,
+                hasNumericAnswer = !wordMode,
+                answerExpression = if (wordMode) null else buildExpression(answer, operands.size),
+                timeLimit = row.timeLimit
+            )
+        }
+
+        private fun variableName(index: Int) = "v$index"
+
+        /**
+         * Compiles the answer template once, with each `{x}` slot bound to a named variable.
+         * Returns null when substituting numbers as text would not mean the same thing, e.g. two
+         * adjacent placeholders (`{a}{b}` concatenates digits), or when exp4j rejects it.
+         */
+        private fun buildExpression(answer: Slots, operandCount: Int): Expression? {
+            for (slot in 0 until answer.slotCount) {
+                val before = answer.literalBefore(slot)
+                val after = answer.literalAfter(slot)
+                if (before.lastOrNull()?.isIdentifierPart() == true ||
+                    after.firstOrNull()?.isIdentifierPart() == true ||
+                    (after.isEmpty() && slot + 1 < answer.slotCount)
+                ) {
+                    return null
+                }
+            }
+
+            val names = Array(operandCount) { variableName(it) }
+            return try {
+                ExpressionBuilder(answer.render(names))
+                    .variables(*names)
+                    .build()
+            } catch (e: Exception) {
+                null
+            }
+        }
+
+        private fun Char.isIdentifierPart() = isLetterOrDigit() || this == '.' || this == '_'
+
+        // Same result as matching ([a-zA-Z])[^*]*\* repeatedly: the first letter of each
+        // '*'-terminated run, without duplicates
+        private fun extractVariables(spec: String): CharArray {
+            val variables = StringBuilder()
+            var i = 0
+            while (i < spec.length) {
+                val c = spec[i]
+                if (c.isAsciiLetter()) {
+                    val end = spec.indexOf('*', i + 1)
+                    if (end < 0) break
+                    if (variables.indexOf(c) < 0) variables.append(c)
+                    i = end + 1
+                } else {
+                    i++
+                }
+            }
+            return CharArray(variables.length) { variables[it] }
+        }
+
+        private fun parseOperands(spec: String, wordMode: Boolean): Array<OperandGenerator> {
+            val operands = mutableListOf<OperandGenerator>()
+            var start = 0
+            while (start <= spec.length) {
+                val end = spec.indexOf('*', start).let { if (it < 0) spec.length else it }
+                val part = spec.substring(start, end)
+                if (part.isNotBlank()) operands.add(parseOperand(part.trim(), wordMode))
+                start = end + 1
+            }
+            return operands.toTypedArray()
+        }
+
+        private fun parseOperand(input: String, wordMode: Boolean): OperandGenerator {
+            return try {
+                if (wordMode) {
+                    WordChoice(input.drop(1).split(",").map { it.trim() }.toTypedArray())
+                } else {
+                    val cleaned = input.filter { it.isDigit() || it == ',' || it == ':' || it == ';' }
+                    when {
+                        ";" in cleaned -> {
+                            val (left, right) = cleaned.split(";").map { it.trim() }
+                            Product(parseValue(left), parseValue(right))
+                        }
+                        "," in cleaned -> Choice(cleaned.split(",").map { it.toInt() }.toIntArray())
+                        ":" in cleaned -> parseRange(cleaned)
+                        else -> Constant(cleaned.toIntOrNull() ?: 0)
+                    }
+                }
+            } catch (e: Exception) {
+                Log.e(TAG, "Error parsing operand: $input", e)
+                Constant(0)
+            }
+        }
+
+        private fun parseValue(value: String): IntOperand = when {
+            "," in value -> Choice(value.split(",").map { it.toInt() }.toIntArray())
+            ":" in value -> parseRange(value)
+            else -> Constant(value.toIntOrNull() ?: 0)
+        }
+
+        private fun parseRange(value: String): IntOperand {
+            val (start, end) = value.split(":").map { it.toInt() }
+            require(start <= end) { "Empty range $value" }
+            return Range(start, end)
+        }
+
+        private fun Char.isAsciiLetter() = this in 'a'..'z' || this in 'A'..'Z'
+    }
+}
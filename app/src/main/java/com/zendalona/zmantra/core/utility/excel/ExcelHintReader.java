@@ -3,10 +3,10 @@ package com.zendalona.zmantra.core.utility.excel;
 import android.content.Context;
 import android.util.Log;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
 import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class ExcelHintReader {
 
@@ -14,32 +14,50 @@ public class ExcelHintReader {
 
     public static String getHintFromExcel(Context context, String language, String mode) {
         String excelFilePath = "hint/" + language + ".xlsx";
+        String[] hint = new String[1];
 
-        try (InputStream inputStream = context.getAssets().open(excelFilePath);
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
-                Log.e(TAG, "No sheet found in Excel file.");
-                return null;
-            }
+        try (InputStream inputStream = context.getAssets().open(excelFilePath)) {
 
-            for (Row row : sheet) {
-                if (row == null) continue;
-
-                Cell modeCell = row.getCell(0);
-                Cell hintCell = row.getCell(1);
+            // Stream rows and stop as soon as the mode's hint is found
+            StreamingSheetReader.read(inputStream, (rowNum, cells) -> {
+                String modeCell = cells.size() > 0 ? cells.get(0) : null;
+                String hintCell = cells.size() > 1 ? cells.get(1) : null;
 
                 if (modeCell != null && hintCell != null &&
-                        mode.equalsIgnoreCase(modeCell.getStringCellValue().trim())) {
-                    return hintCell.getStringCellValue().trim();
+                        mode.equalsIgnoreCase(modeCell.trim())) {
+                    hint[0] = hintCell.trim();
+                    return false;
                 }
-            }
+                return true;
+            });
 
         } catch (Exception e) {
             Log.e(TAG, "Error reading Excel file: " + excelFilePath, e);
         }
 
-        return null; // Return null for fallback handling
+        return hint[0]; // Return null for fallback handling
+    }
+
+    /**
+     * Reads every hint of a sheet in one pass, keyed by the trimmed, lower-cased mode.
+     * The first row for a mode wins, like {@link #getHintFromExcel}.
+     */
+    public static Map<String, String> readHints(InputStream inputStream) throws Exception {
+        Map<String, String> hints = new LinkedHashMap<>();
+
+        StreamingSheetReader.read(inputStream, (rowNum, cells) -> {
+            String modeCell = cells.size() > 0 ? cells.get(0) : null;
+            String hintCell = cells.size() > 1 ? cells.get(1) : null;
+
+            if (modeCell != null && hintCell != null) {
+                String mode = modeCell.trim().toLowerCase(Locale.ROOT);
+                if (!mode.isEmpty() && !hints.containsKey(mode)) {
+                    hints.put(mode, hintCell.trim());
+                }
+            }
+            return true;
+        });
+
+        return hints;
     }
 }
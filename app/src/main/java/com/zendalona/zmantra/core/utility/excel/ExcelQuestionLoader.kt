@@ -2,91 +2,17 @@ package com.zendalona.zmantra.core.utility.excel
 
 import android.content.Context
 import android.util.Log
-import com.zendalona.zmantra.domain.model.GameQuestion
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import net.objecthunter.exp4j.ExpressionBuilder
-import org.apache.poi.ss.usermodel.Sheet
-import org.apache.poi.ss.usermodel.Workbook
-import org.apache.poi.ss.usermodel.WorkbookFactory
+import java.io.InputStream
 import java.util.*
-import kotlin.random.Random
-import kotlin.text.iterator
 
 object ExcelQuestionLoader {
 
     private const val TAG = "ExcelQuestionLoader"
 
-    private fun extractVariables(input: String): List<String> {
-        val regex = Regex("""([a-zA-Z])[^*]*\*""")
-        val matches = regex.findAll(input)
-        return matches.map { it.groupValues[1] }.distinct().toList()
-    }
-
-    private fun parseInputRange(inputRange: String, mode: String): List<Any> {
-        val operands = mutableListOf<Any>()
-        var current = ""
-        for (c in inputRange) {
-            if (c == '*') {
-                if (current.isNotBlank()) {
-                    operands.add(parseSingleOperand(current.trim(), mode))
-                    current = ""
-                }
-            } else {
-                current += c
-            }
-        }
-        if (current.isNotBlank()) operands.add(parseSingleOperand(current.trim(), mode))
-        return operands
-    }
-
-    private fun parseSingleOperand(input: String, mode: String): Any {
-        return try {
-            if (mode in listOf("direction", "drawing")) {
-                input.drop(1).split(",").random().trim()
-            } else {
-                val cleaned = input.filter { it.isDigit() || it == ',' || it == ':' || it == ';' }
-                when {
-                    ";" in cleaned -> {
-                        val (left, right) = cleaned.split(";").map { it.trim() }
-                        val leftVal = parseValue(left)
-                        val rightVal = parseValue(right)
-                        leftVal * rightVal
-                    }
-                    "," in cleaned -> cleaned.split(",").map { it.toInt() }.random()
-                    ":" in cleaned -> {
-                        val (start, end) = cleaned.split(":").map { it.toInt() }
-                        Random.nextInt(start, end + 1)
-                    }
-                    else -> cleaned.toIntOrNull() ?: 0
-                }
-            }
-        } catch (e: Exception) {
-            Log.e(TAG, "Error parsing operand: $input", e)
-            0
-        }
-    }
-
-    private fun parseValue(value: String): Int {
-        return when {
-            "," in value -> value.split(",").map { it.toInt() }.random()
-            ":" in value -> {
-                val (start, end) = value.split(":").map { it.toInt() }
-                Random.nextInt(start, end + 1)
-            }
-            else -> value.toIntOrNull() ?: 0
-        }
-    }
-
-    private fun replaceVariables(template: String, variables: List<String>, values: List<Any>): String {
-        var updated = template
-        for (i in variables.indices) {
-            updated = updated.replace("{${variables[i]}}", values[i].toString())
-        }
-        return updated
-    }
-
-    private fun evaluateEquation(equation: String): Int {
+    internal fun evaluateEquation(equation: String): Int {
         return try {
             ExpressionBuilder(equation).build().evaluate().toInt()
         } catch (e: Exception) {
@@ -95,70 +21,71 @@ object ExcelQuestionLoader {
         }
     }
 
-    /** ✅ Called by BaseGameFragment */
-    suspend fun loadQuestionsFromExcel(
-        context: Context,
-        lang: String,
-        mode: String,
-        difficulty: String
-    ): List<GameQuestion> = withContext(Dispatchers.IO) {
+    /**
+     * Streams `questions/<lang>.xlsx` with [StreamingSheetReader] and returns every usable row.
+     * Used when no compiled question bank is bundled; returns an empty list on failure.
+     */
+    suspend fun readRowsFromExcel(context: Context, lang: String): List<QuestionRow> {
         val fileName = "questions/${lang.lowercase(Locale.ROOT)}.xlsx"
-        try {
-            context.assets.open(fileName).use { stream ->
-                val workbook = WorkbookFactory.create(stream)
-                val sheet = workbook.getSheetAt(0)
-                val questions = loadQuestionsFromSheet(sheet, mode, difficulty)
-                workbook.close()
-                questions
+        return withContext(Dispatchers.IO) {
+            try {
+                context.assets.open(fileName).use(::readRows)
+            } catch (e: Exception) {
+                Log.e(TAG, "Error loading from Excel", e)
+                emptyList()
             }
-        } catch (e: Exception) {
-            Log.e(TAG, "Error loading from Excel", e)
-            emptyList()
         }
     }
 
-    /** ✅ Called from splash screen preload cache */
-    fun loadQuestionsFromSheet(
-        sheet: Sheet,
-        mode: String,
-        difficulty: String
-    ): List<GameQuestion> {
-        val questions = mutableListOf<GameQuestion>()
-        for (row in sheet) {
-            if (row.rowNum == 0) continue
-
-            val template = row.getCell(0)?.toString()
-            val rowMode = row.getCell(1)?.toString()?.trim()?.lowercase(Locale.ROOT)
-            val operand = row.getCell(2)?.toString()
-            val diff = row.getCell(3)?.toString()?.toDoubleOrNull()?.toInt()?.toString()
-            val answerTemplate = row.getCell(4)?.toString()
-            val timeLimit = row.getCell(5)?.numericCellValue?.toInt() ?: 20
+    /** Reads every usable row of a question sheet in a single streaming pass. */
+    fun readRows(input: InputStream): List<QuestionRow> {
+        val rows = mutableListOf<QuestionRow>()
+        StreamingSheetReader.read(input) { rowNum, cells ->
+            readRow(rowNum, cells)?.let(rows::add)
+            true
+        }
+        return rows
+    }
 
-            if (template == null || rowMode == null || operand == null || diff == null || answerTemplate == null) {
-                continue
-            }
+    private fun readRow(rowNum: Int, cells: List<String?>): QuestionRow? {
+        if (rowNum == 0) return null
 
-            if (rowMode == mode.lowercase(Locale.ROOT) && diff == difficulty) {
-                val variables = extractVariables(operand)
-                val values = parseInputRange(operand, mode)
-                if (variables.size != values.size) continue
+        val template = cells.getOrNull(0)
+        val rowMode = cells.getOrNull(1)?.trim()?.lowercase(Locale.ROOT)
+        val operand = cells.getOrNull(2)
+        val diff = cells.getOrNull(3)?.toDoubleOrNull()?.toInt()?.toString()
+        val answerTemplate = cells.getOrNull(4)
+        val timeLimit = cells.getOrNull(5)?.toDoubleOrNull()?.toInt() ?: 20
 
-                val renderedQ = replaceVariables(template, variables, values)
-                val renderedExpr = replaceVariables(answerTemplate, variables, values)
-                val answer = if (mode in listOf("direction", "drawing")) 0 else evaluateEquation(renderedExpr)
+        if (template == null || rowMode == null || operand == null || diff == null || answerTemplate == null) {
+            return null
+        }
+        return QuestionRow(template, rowMode, operand, diff, answerTemplate, timeLimit)
+    }
 
-                questions.add(GameQuestion(renderedQ, answer, timeLimit))
-            }
+    /**
+     * Opens the question bank for [lang]: the bundled compiled bank when present, otherwise the
+     * on-device [QuestionDiskCache], which parses the .xlsx only when its cache file is missing.
+     */
+    suspend fun openQuestionBank(context: Context, lang: String): QuestionSource? {
+        return loadQuestionBank(context, lang) ?: withContext(Dispatchers.IO) {
+            QuestionDiskCache.load(context, lang) { readRowsFromExcel(context, lang) }
         }
-        return questions
     }
 
-    /** ✅ Used once in splash preload */
-    suspend fun loadWorkbook(context: Context, lang: String): Workbook {
-        val fileName = "questions/${lang.lowercase(Locale.ROOT)}.xlsx"
+    /**
+     * Opens the build-time compiled `questions/<lang>.bin`.
+     * Returns null when the asset is missing or unreadable so callers can fall back to the .xlsx.
+     */
+    suspend fun loadQuestionBank(context: Context, lang: String): QuestionBank? {
+        val fileName = "questions/${lang.lowercase(Locale.ROOT)}.bin"
         return withContext(Dispatchers.IO) {
-            val inputStream = context.assets.open(fileName)
-            WorkbookFactory.create(inputStream)
+            try {
+                context.assets.open(fileName).use { QuestionBank.read(it) }
+            } catch (e: Exception) {
+                Log.w(TAG, "No compiled question bank for $lang, falling back to Excel", e)
+                null
+            }
         }
     }
 }
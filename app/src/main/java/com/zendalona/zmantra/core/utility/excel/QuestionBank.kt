@@ -0,0 +1,152 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import java.io.BufferedOutputStream
+import java.io.ByteArrayInputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.ByteBuffer
+
+/**
+ * Runtime view of `questions/<lang>.bin`, the compact question bank produced at build time by
+ * `CompileQuestionBankTask` (see buildSrc for the byte layout). [write] produces the same layout
+ * on device for [QuestionDiskCache].
+ *
+ * Columns are kept as string-table indexes; [rows] only builds [QuestionRow]s for the
+ * requested (mode, difficulty) group.
+ */
+class QuestionBank private constructor(
+    private val strings: Array<String>,
+    private val template: IntArray,
+    private val mode: IntArray,
+    private val operands: IntArray,
+    private val answer: IntArray,
+    private val difficulty: IntArray,
+    private val timeLimit: IntArray,
+    private val groups: Map<String, IntRange>,
+    override val modes: Set<String>
+) : QuestionSource {
+
+    val rowCount: Int get() = template.size
+
+    // Built on first request and kept, so each row's compiled template is reused
+    private val groupRows = HashMap<String, List<QuestionRow>>()
+
+    override fun rows(mode: String, difficulty: String): List<QuestionRow> {
+        val key = groupKey(mode, difficulty)
+        val range = groups[key] ?: return emptyList()
+        return synchronized(groupRows) { groupRows.getOrPut(key) { range.map(::row) } }
+    }
+
+    private fun row(i: Int) = QuestionRow(
+        template = strings[template[i]],
+        mode = strings[mode[i]],
+        operands = strings[operands[i]],
+        difficulty = difficulty[i].toString(),
+        answerTemplate = strings[answer[i]],
+        timeLimit = timeLimit[i]
+    )
+
+    companion object {
+        private const val MAGIC = 0x5A4D5142 // "ZMQB"
+        private const val VERSION = 1
+
+        private fun groupKey(mode: String, difficulty: String) = "$mode-$difficulty"
+
+        fun read(input: InputStream): QuestionBank = read(ByteBuffer.wrap(input.readBytes()))
+
+        /** Reads a bank from [buffer], e.g. a memory-mapped cache file. Column data is bulk-copied. */
+        fun read(buffer: ByteBuffer): QuestionBank {
+            if (buffer.int != MAGIC) throw IOException("Not a question bank")
+            val version = buffer.short.toInt()
+            if (version != VERSION) throw IOException("Unsupported question bank version $version")
+
+            val strings = Array(buffer.int) { readUTF(buffer) }
+
+            val rowCount = buffer.int
+            fun column() = IntArray(rowCount).also {
+                buffer.asIntBuffer().get(it)
+                buffer.position(buffer.position() + rowCount * Int.SIZE_BYTES)
+            }
+            val template = column()
+            val mode = column()
+            val operands = column()
+            val answer = column()
+            val difficulty = column()
+            val timeLimit = column()
+
+            val groups = LinkedHashMap<String, IntRange>()
+            val modes = LinkedHashSet<String>()
+            repeat(buffer.int) {
+                val groupMode = strings[buffer.int]
+                modes.add(groupMode)
+                val groupDifficulty = buffer.int
+                val first = buffer.int
+                val count = buffer.int
+                groups[groupKey(groupMode, groupDifficulty.toString())] = first until first + count
+            }
+
+            return QuestionBank(strings, template, mode, operands, answer, difficulty, timeLimit, groups, modes)
+        }
+
+        // Strings are stored with DataOutput.writeUTF (modified UTF-8), so decode them the same way
+        private fun readUTF(buffer: ByteBuffer): String {
+            val length = buffer.short.toInt() and 0xFFFF
+            val bytes = ByteArray(length + 2)
+            bytes[0] = (length shr 8).toByte()
+            bytes[1] = length.toByte()
+            buffer.get(bytes, 2, length)
+            return DataInputStream(ByteArrayInputStream(bytes)).readUTF()
+        }
+
+        /**
+         * Writes [rows] in the `CompileQuestionBankTask` layout: grouped by (mode, difficulty)
+         * with modes in first-seen order, keeping sheet order inside each group.
+         */
+        fun write(rows: List<QuestionRow>, output: OutputStream) {
+            val usable = rows.filter { it.mode.isNotEmpty() && it.difficulty.toIntOrNull() != null }
+
+            val strings = LinkedHashMap<String, Int>()
+            fun intern(value: String) = strings.getOrPut(value) { strings.size }
+
+            val modeOrder = LinkedHashMap<String, Int>()
+            usable.forEach { modeOrder.getOrPut(it.mode) { modeOrder.size } }
+            val sorted = usable.sortedWith(
+                compareBy<QuestionRow>({ modeOrder.getValue(it.mode) }, { it.difficulty.toInt() })
+            )
+            sorted.forEach {
+                intern(it.template)
+                intern(it.mode)
+                intern(it.operands)
+                intern(it.answerTemplate)
+            }
+
+            val out = DataOutputStream(BufferedOutputStream(output))
+            out.writeInt(MAGIC)
+            out.writeShort(VERSION)
+
+            out.writeInt(strings.size)
+            strings.keys.forEach(out::writeUTF)
+
+            out.writeInt(sorted.size)
+            sorted.forEach { out.writeInt(strings.getValue(it.template)) }
+            sorted.forEach { out.writeInt(strings.getValue(it.mode)) }
+            sorted.forEach { out.writeInt(strings.getValue(it.operands)) }
+            sorted.forEach { out.writeInt(strings.getValue(it.answerTemplate)) }
+            sorted.forEach { out.writeInt(it.difficulty.toInt()) }
+            sorted.forEach { out.writeInt(it.timeLimit) }
+
+            val groups = sorted.indices.groupBy { sorted[it].mode to sorted[it].difficulty.toInt() }
+            out.writeInt(groups.size)
+            groups.forEach { (key, indexes) ->
+                out.writeInt(strings.getValue(key.first))
+                out.writeInt(key.second)
+                out.writeInt(indexes.first())
+                out.writeInt(indexes.size)
+            }
+            out.flush()
+        }
+    }
+}
@@ -2,94 +2,116 @@ package com.zendalona.zmantra.core.utility.excel
 
 import android.content.Context
 import android.util.Log
-import com.zendalona.zmantra.domain.model.GameQuestion
-import com.zendalona.zmantra.presentation.features.setting.util.DifficultyPreferences
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
-import org.apache.poi.ss.usermodel.Sheet
-import java.util.*
-
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Process-wide question sheets shared by the splash screen, prefetch and the game screens.
+ *
+ * All of them can ask for the same language at the same time, so loads are single-flight:
+ * each language's sheet is opened by one [Deferred] that every caller awaits. Questions are
+ * not cached; [openStream] generates them from the sheet's rows as a game reads them.
+ */
 object QuestionCache {
 
-    private val cache = mutableMapOf<String, List<GameQuestion>>() // key = "$lang-$mode-$difficulty"
     private const val TAG = "QuestionCache"
 
-    suspend fun preloadCurrentDifficultyModes(
-        context: Context,
-        lang: String,
-        onProgress: (Int) -> Unit = {} // Optional progress callback
-    ) = withContext(Dispatchers.IO) {
-        val currentDifficulty = DifficultyPreferences.getDifficulty(context).toString()
-        val workbook = ExcelQuestionLoader.loadWorkbook(context, lang)
-        val sheet = workbook.getSheetAt(0)
-
-        val detectedModes = extractModes(sheet)
-
-        val total = detectedModes.size
-        var loaded = 0
-
-        for (mode in detectedModes) {
-            val key = "$lang-$mode-$currentDifficulty"
-            val questions = ExcelQuestionLoader.loadQuestionsFromSheet(sheet, mode, currentDifficulty)
-            if (questions.isNotEmpty()) {
-                cache[key] = questions
-                Log.d(TAG, "✅ Cached $mode-$currentDifficulty (${questions.size})")
-            }
-            loaded++
-            val progress = (loaded * 100) / total
-            onProgress(progress)
-        }
+    // In-flight and finished sheet loads per language
+    private val sources = ConcurrentHashMap<String, Deferred<QuestionSource?>>()
 
-        workbook.close()
+    // Loads are not tied to the screen that started them, so a later caller can still join one
+    private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    /**
+     * Opens the sheet for [lang] without rendering any questions, so the splash screen only pays
+     * for the row index. Returns false when the language has no usable questions.
+     */
+    suspend fun openIndex(context: Context, lang: String): Boolean = withContext(Dispatchers.IO) {
+        source(context, lang) != null
     }
 
-    suspend fun preloadOtherDifficultyModes(context: Context, lang: String) = withContext(Dispatchers.IO) {
-        val currentDifficulty = DifficultyPreferences.getDifficulty(context).toString()
-        val allDifficulties = listOf("1", "2", "3", "4", "5")
-        val otherDifficulties = allDifficulties.filter { it != currentDifficulty }
-
-        val workbook = ExcelQuestionLoader.loadWorkbook(context, lang)
-        val sheet = workbook.getSheetAt(0)
-
-        val detectedModes = extractModes(sheet)
-
-        for (difficulty in otherDifficulties) {
-            for (mode in detectedModes) {
-                val key = "$lang-$mode-$difficulty"
-                val questions = ExcelQuestionLoader.loadQuestionsFromSheet(sheet, mode, difficulty)
-                if (questions.isNotEmpty()) {
-                    cache[key] = questions
-                    Log.d(TAG, "✅ Cached $mode-$difficulty (${questions.size})")
-                }
-            }
+    /** Compiles [modes]' rows in the background so the next game screen starts without parsing. */
+    fun prefetch(context: Context, lang: String, modes: List<String>, difficulty: String) {
+        if (modes.isEmpty()) return
+        val appContext = context.applicationContext
+        scope.launch {
+            for (mode in modes) openStream(appContext, lang, mode, difficulty)
         }
+    }
 
-        workbook.close()
+    /**
+     * Opens an endless [QuestionStream] for a key. Only the sheet index and each row's compiled
+     * template are kept; questions are generated as the stream is read.
+     */
+    suspend fun openStream(
+        context: Context,
+        lang: String,
+        mode: String,
+        difficulty: String
+    ): QuestionStream = openStream(lang, mode, difficulty, sheetLoader(context, lang))
+
+    // Takes the sheet loader as a parameter so tests can run the real single-flight path on rows
+    internal suspend fun openStream(
+        lang: String,
+        mode: String,
+        difficulty: String,
+        open: suspend () -> QuestionSource?
+    ): QuestionStream = withContext(Dispatchers.IO) {
+        val rows = source(lang, open)?.rows(mode.lowercase(Locale.ROOT), difficulty) ?: emptyList()
+        QuestionStream.of(rows)
     }
 
-    private fun extractModes(sheet: Sheet): Set<String> {
-        val modeColumnIndex = 1
-        val detectedModes = mutableSetOf<String>()
-        for (i in 1..sheet.lastRowNum) {
-            val row = sheet.getRow(i) ?: continue
-            val cell = row.getCell(modeColumnIndex) ?: continue
-            val mode = cell.stringCellValue.trim().lowercase(Locale.ROOT)
-            if (mode.isNotEmpty()) detectedModes.add(mode)
+    private suspend fun source(context: Context, lang: String): QuestionSource? =
+        source(lang, sheetLoader(context, lang))
+
+    // Opens each language's sheet once. A load that returns null or throws is forgotten, so the
+    // next caller retries instead of getting the same failure for the rest of the process
+    internal suspend fun source(lang: String, open: suspend () -> QuestionSource?): QuestionSource? {
+        val load = sources.computeIfAbsent(lang) {
+            scope.async(start = CoroutineStart.LAZY) { open() }
+        }
+        load.start()
+
+        val source = try {
+            load.await()
+        } catch (e: Exception) {
+            // A caller cancelled while waiting leaves the load running for the others
+            if (load.isCancelled) sources.remove(lang, load)
+            throw e
         }
-        return detectedModes
+        if (source == null) sources.remove(lang, load)
+        return source
     }
 
-    fun getQuestions(lang: String, mode: String, difficulty: String): List<GameQuestion> {
-        val key = "$lang-$mode-$difficulty"
-        return cache[key] ?: emptyList()
+    // Loads outlive the screen that started them, so they only hold the application context
+    private fun sheetLoader(context: Context, lang: String): suspend () -> QuestionSource? {
+        val appContext = context.applicationContext
+        return { openSource(appContext, lang) }
     }
 
-    fun putQuestions(lang: String, mode: String, difficulty: String, questions: List<GameQuestion>) {
-        val key = "$lang-$mode-$difficulty"
-        cache[key] = questions
+    // The compiled or disk-cached bank, else a row index built from one streaming pass. A broken
+    // sheet or cache file means no questions for now, not a crash in the game screen
+    private suspend fun openSource(context: Context, lang: String): QuestionSource? {
+        return try {
+            ExcelQuestionLoader.openQuestionBank(context, lang)?.let { return it }
+
+            val rows = ExcelQuestionLoader.readRowsFromExcel(context, lang)
+            if (rows.isEmpty()) null else QuestionRowIndex.build(rows)
+        } catch (e: Exception) {
+            Log.w(TAG, "Cannot open questions for $lang", e)
+            null
+        }
     }
 
     fun clearCache() {
-        cache.clear()
+        sources.clear()
     }
 }
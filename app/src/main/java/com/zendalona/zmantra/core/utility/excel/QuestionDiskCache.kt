@@ -0,0 +1,97 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import android.content.Context
+import android.util.Log
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.Locale
+
+/**
+ * Disk tier for question sheets that have no build-time compiled bank.
+ *
+ * The first run parses `questions/<lang>.xlsx` once and stores the rows as a [QuestionBank]
+ * under `filesDir/question_cache/`. The file name carries the APK version code and the sheet's
+ * size, so an app update or an edited sheet simply misses and rebuilds. Warm starts
+ * memory-map the file instead of parsing the workbook again.
+ */
+object QuestionDiskCache {
+
+    private const val TAG = "QuestionDiskCache"
+    private const val DIR_NAME = "question_cache"
+
+    /**
+     * Returns the cached bank for [lang], building it from [readRows] on a miss. When the bank
+     * cannot be written, the rows are served from a [QuestionRowIndex] for this run instead.
+     * Returns null when the sheet has no usable rows or the cache cannot be keyed.
+     */
+    suspend fun load(
+        context: Context,
+        lang: String,
+        readRows: suspend () -> List<QuestionRow>
+    ): QuestionSource? {
+        val language = lang.lowercase(Locale.ROOT)
+        val dir = File(context.filesDir, DIR_NAME)
+
+        val file = try {
+            File(dir, "$language-v${versionCode(context)}-${assetSize(context, language)}.bin")
+        } catch (e: Exception) {
+            Log.w(TAG, "Cannot key question cache for $language", e)
+            return null
+        }
+
+        if (file.exists()) {
+            try {
+                return QuestionBank.read(map(file))
+            } catch (e: Exception) {
+                Log.w(TAG, "Discarding unreadable ${file.name}", e)
+                file.delete()
+            }
+        }
+
+        val rows = readRows()
+        if (rows.isEmpty()) return null
+
+        val bytes = try {
+            ByteArrayOutputStream().also { QuestionBank.write(rows, it) }.toByteArray()
+        } catch (e: Exception) {
+            // e.g. a cell too long for writeUTF; the rows are still good for this run
+            Log.w(TAG, "Cannot encode question bank for $language", e)
+            return QuestionRowIndex.build(rows)
+        }
+        store(dir, file, language, bytes)
+        return QuestionBank.read(ByteBuffer.wrap(bytes))
+    }
+
+    fun clear(context: Context) {
+        File(context.filesDir, DIR_NAME).deleteRecursively()
+    }
+
+    // Written to a temp file and renamed so a killed process never leaves a half-written bank
+    private fun store(dir: File, file: File, language: String, bytes: ByteArray) {
+        try {
+            dir.mkdirs()
+            dir.listFiles { f -> f.name.startsWith("$language-") }?.forEach { it.delete() }
+
+            val tmp = File(dir, "${file.name}.tmp")
+            tmp.writeBytes(bytes)
+            if (!tmp.renameTo(file)) tmp.delete()
+            Log.d(TAG, "Stored ${file.name} (${bytes.size} bytes)")
+        } catch (e: Exception) {
+            Log.w(TAG, "Failed to store ${file.name}", e)
+        }
+    }
+
+    private fun map(file: File): ByteBuffer =
+        FileInputStream(file).channel.use { it.map(FileChannel.MapMode.READ_ONLY, 0, it.size()) }
+
+    private fun versionCode(context: Context): Long =
+        context.packageManager.getPackageInfo(context.packageName, 0).longVersionCode
+
+    // The version code already pins the bundled sheet; the size catches a sheet edited between
+    // builds of one version. An asset stream knows its length, so nothing is read
+    private fun assetSize(context: Context, language: String): Int =
+        context.assets.open("questions/$language.xlsx").use { it.available() }
+}
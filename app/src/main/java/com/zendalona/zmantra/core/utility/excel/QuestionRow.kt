@@ -0,0 +1,15 @@
+package com.zendalona.zmantra.core.utility.excel
+
+// One usable row of a question sheet, with the same column meaning as the .xlsx
+// (template, mode, operands, difficulty, answer template, time limit)
+data class QuestionRow(
+    val template: String,
+    val mode: String,
+    val operands: String,
+    val difficulty: String,
+    val answerTemplate: String,
+    val timeLimit: Int = 20
+) {
+    // Parsed on first use and reused for every question rendered from this row
+    val compiled: CompiledTemplate? by lazy { CompiledTemplate.compile(this) }
+}
@@ -0,0 +1,32 @@
+package com.zendalona.zmantra.core.utility.excel
+
+/**
+ * Rows of one question sheet bucketed by (mode, difficulty).
+ *
+ * [build] walks the rows exactly once, so preloading every mode and difficulty costs a single
+ * sheet scan instead of one scan per (mode, difficulty) pair.
+ */
+class QuestionRowIndex private constructor(
+    private val buckets: Map<String, Map<String, List<QuestionRow>>>
+) : QuestionSource {
+
+    override val modes: Set<String> get() = buckets.keys
+
+    val rowCount: Int get() = buckets.values.sumOf { byDifficulty -> byDifficulty.values.sumOf { it.size } }
+
+    override fun rows(mode: String, difficulty: String): List<QuestionRow> =
+        buckets[mode]?.get(difficulty) ?: emptyList()
+
+    companion object {
+        fun build(rows: Iterable<QuestionRow>): QuestionRowIndex {
+            val buckets = LinkedHashMap<String, MutableMap<String, MutableList<QuestionRow>>>()
+            for (row in rows) {
+                if (row.mode.isEmpty()) continue
+                buckets.getOrPut(row.mode) { LinkedHashMap() }
+                    .getOrPut(row.difficulty) { mutableListOf() }
+                    .add(row)
+            }
+            return QuestionRowIndex(buckets)
+        }
+    }
+}
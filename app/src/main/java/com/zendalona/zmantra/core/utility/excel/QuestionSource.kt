@@ -0,0 +1,10 @@
+package com.zendalona.zmantra.core.utility.excel
+
+/** Question rows of one language, looked up by (mode, difficulty). */
+interface QuestionSource {
+
+    /** Modes in sheet order. */
+    val modes: Set<String>
+
+    fun rows(mode: String, difficulty: String): List<QuestionRow>
+}
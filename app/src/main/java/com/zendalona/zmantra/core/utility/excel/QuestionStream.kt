@@ -0,0 +1,39 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import com.zendalona.zmantra.domain.model.GameQuestion
+import kotlin.random.Random
+
+/**
+ * Unbounded questions for one (mode, difficulty), generated from the rows' compiled templates.
+ *
+ * Rows are visited in sheet order and the walk wraps around, drawing fresh operands every
+ * time, so no question list is kept and a session can run for as long as the player does.
+ */
+class QuestionStream internal constructor(
+    private val templates: List<CompiledTemplate>,
+    private val random: Random = Random.Default
+) : Iterator<GameQuestion> {
+
+    private var position = 0
+
+    /** Distinct rows behind the stream; one pass over them matches the old fixed list. */
+    val rowCount: Int get() = templates.size
+
+    override fun hasNext(): Boolean = templates.isNotEmpty()
+
+    override fun next(): GameQuestion {
+        if (templates.isEmpty()) throw NoSuchElementException("No questions in this stream")
+        val template = templates[position]
+        position = (position + 1) % templates.size
+        return template.instantiate(random)
+    }
+
+    /** The next [count] questions as a list. */
+    fun take(count: Int): List<GameQuestion> = List(if (hasNext()) count else 0) { next() }
+
+    companion object {
+        /** Rows whose operand spec does not compile are skipped, as in the list loaders. */
+        fun of(rows: List<QuestionRow>, random: Random = Random.Default): QuestionStream =
+            QuestionStream(rows.mapNotNull { it.compiled }, random)
+    }
+}
@@ -0,0 +1,25 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import android.content.Context
+import androidx.core.content.edit
+import androidx.preference.PreferenceManager
+
+/** Game modes the player opened most recently, newest first; used to pick what to prefetch. */
+object RecentModes {
+    private const val KEY_RECENT_MODES = "pref_recent_modes"
+    private const val MAX_MODES = 3
+
+    fun get(context: Context): List<String> {
+        val prefs = PreferenceManager.getDefaultSharedPreferences(context)
+        return prefs.getString(KEY_RECENT_MODES, null)
+            ?.split(',')
+            ?.filter { it.isNotEmpty() }
+            ?: emptyList()
+    }
+
+    fun record(context: Context, mode: String) {
+        val modes = (listOf(mode) + get(context).filter { it != mode }).take(MAX_MODES)
+        val prefs = PreferenceManager.getDefaultSharedPreferences(context)
+        prefs.edit { putString(KEY_RECENT_MODES, modes.joinToString(",")) }
+    }
+}
@@ -0,0 +1,110 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import com.zendalona.zmantra.sheet.SheetCellText
+import org.apache.poi.openxml4j.opc.OPCPackage
+import org.apache.poi.ss.util.CellReference
+import org.apache.poi.util.XMLHelper
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable
+import org.apache.poi.xssf.eventusermodel.XSSFReader
+import org.xml.sax.Attributes
+import org.xml.sax.InputSource
+import org.xml.sax.helpers.DefaultHandler
+import java.io.InputStream
+
+/**
+ * Event-driven reader for the first sheet of an `.xlsx`, built on POI's [XSSFReader].
+ *
+ * Rows are handed to a [RowHandler] as they are parsed instead of building a whole
+ * `Workbook`, and the handler can stop the scan as soon as it has what it needs. Cells become
+ * text through [SheetCellText], like in the build-time sheet compiler, so a sheet parsed here
+ * yields the same rows as its compiled bank.
+ */
+object StreamingSheetReader {
+
+    fun interface RowHandler {
+        /**
+         * @param cells cell text indexed by column; missing cells are null, cells present
+         *              without a value are "". The list is reused between rows, copy it if it
+         *              must outlive the call.
+         * @return false to stop reading the sheet.
+         */
+        fun onRow(rowNum: Int, cells: List<String?>): Boolean
+    }
+
+    // Thrown from the SAX callbacks to abort parsing; no stack trace needed
+    private class StopReading : RuntimeException(null, null, false, false)
+
+    @JvmStatic
+    fun read(input: InputStream, handler: RowHandler) {
+        OPCPackage.open(input).use { pkg ->
+            val sheets = XSSFReader(pkg).sheetsData
+            if (!sheets.hasNext()) return
+
+            val sharedStrings = ReadOnlySharedStringsTable(pkg, false)
+            val parser = XMLHelper.newXMLReader().apply {
+                contentHandler = SheetHandler(sharedStrings, handler)
+            }
+
+            sheets.next().use { sheet ->
+                try {
+                    parser.parse(InputSource(sheet))
+                } catch (_: StopReading) {
+                    // Handler asked to stop early
+                }
+            }
+        }
+    }
+
+    // Walks <row>, <c>, <v> and inline <t> elements the same way as the build-time reader
+    private class SheetHandler(
+        private val sharedStrings: ReadOnlySharedStringsTable,
+        private val handler: RowHandler
+    ) : DefaultHandler() {
+
+        private val cells = ArrayList<String?>()
+        private var rowNum = -1
+        private var column = -1
+        private var type: String? = null
+        private val value = StringBuilder()
+        private var hasValue = false
+        private var inValue = false
+
+        override fun startElement(uri: String?, localName: String, qName: String?, attributes: Attributes) {
+            when (localName) {
+                "row" -> {
+                    rowNum = (attributes.getValue("r")?.toIntOrNull() ?: (rowNum + 2)) - 1
+                    cells.clear()
+                    column = -1
+                }
+                "c" -> {
+                    column = attributes.getValue("r")?.let { CellReference(it).col.toInt() } ?: (column + 1)
+                    type = attributes.getValue("t")
+                    value.setLength(0)
+                    hasValue = false
+                }
+                "v", "t" -> {
+                    inValue = true
+                    hasValue = true
+                }
+            }
+        }
+
+        override fun characters(ch: CharArray, start: Int, length: Int) {
+            if (inValue) value.append(ch, start, length)
+        }
+
+        override fun endElement(uri: String?, localName: String, qName: String?) {
+            when (localName) {
+                "v", "t" -> inValue = false
+                "c" -> {
+                    while (cells.size <= column) cells.add(null)
+                    cells[column] = SheetCellText.text(type, if (hasValue) value.toString() else null, ::sharedString)
+                }
+                "row" -> if (!handler.onRow(rowNum, cells)) throw StopReading()
+            }
+        }
+
+        private fun sharedString(index: Int): String =
+            if (index in 0 until sharedStrings.count) sharedStrings.getItemAt(index).string else ""
+    }
+}
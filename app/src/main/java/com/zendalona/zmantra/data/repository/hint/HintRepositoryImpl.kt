@@ -0,0 +1,65 @@
+package com.zendalona.zmantra.data.repository.hint
+
+import android.content.Context
+import android.util.Log
+import com.zendalona.zmantra.core.utility.excel.ExcelHintReader
+import com.zendalona.zmantra.domain.repository.HintRepository
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import org.json.JSONObject
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import javax.inject.Inject
+
+/**
+ * Loads each language's hints once, off the main thread, into a mode-keyed map.
+ *
+ * Reads the build-time `hint/<lang>.json`; if it is missing, the `.xlsx` is streamed once
+ * through [ExcelHintReader.readHints] instead.
+ */
+class HintRepositoryImpl @Inject constructor(
+    @ApplicationContext private val context: Context
+) : HintRepository {
+
+    private val hints = ConcurrentHashMap<String, Map<String, String>>()
+    private val loadLock = Mutex()
+
+    override suspend fun getHint(language: String, mode: String): String? {
+        return hintsFor(language.lowercase(Locale.ROOT))[mode.trim().lowercase(Locale.ROOT)]
+    }
+
+    override suspend fun getHints(language: String): Map<String, String> {
+        return hintsFor(language.lowercase(Locale.ROOT))
+    }
+
+    private suspend fun hintsFor(language: String): Map<String, String> {
+        hints[language]?.let { return it }
+        return loadLock.withLock {
+            hints[language] ?: withContext(Dispatchers.IO) { load(language) }.also { hints[language] = it }
+        }
+    }
+
+    private fun load(language: String): Map<String, String> {
+        try {
+            val json = context.assets.open("hint/$language.json").bufferedReader().use { it.readText() }
+            val obj = JSONObject(json)
+            return obj.keys().asSequence().associateWith { obj.getString(it) }
+        } catch (e: Exception) {
+            Log.w(TAG, "No compiled hints for $language, reading Excel", e)
+        }
+
+        return try {
+            context.assets.open("hint/$language.xlsx").use { ExcelHintReader.readHints(it) }
+        } catch (e: Exception) {
+            Log.e(TAG, "Error reading hints for $language", e)
+            emptyMap()
+        }
+    }
+
+    private companion object {
+        const val TAG = "HintRepository"
+    }
+}
@@ -1,20 +1,70 @@
 package com.zendalona.zmantra.data.repository.userguide;
 
 import android.content.Context
+import android.util.LruCache
 import com.zendalona.zmantra.domain.repository.UserGuideRepository
 import dagger.hilt.android.qualifiers.ApplicationContext;
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.flow.toList
+import java.io.IOException
 import javax.inject.Inject
 
 class UserGuideRepositoryImpl @Inject constructor(
         @ApplicationContext private val context: Context
 ) : UserGuideRepository {
 
+    // Guide sections per language, bounded by their total length in chars
+    private val cache = object : LruCache<String, List<String>>(MAX_CACHED_CHARS) {
+        override fun sizeOf(key: String, value: List<String>): Int = value.sumOf { it.length }
+    }
+
     override suspend fun getUserGuideHtml(language: String): String {
         return try {
-            context.assets.open("userguide/$language.html").bufferedReader().use { it.readText() }
+            getUserGuideSections(language).toList().joinToString("")
         } catch (_: Exception) {
-            "<p>Could not load user guide.</p>"
+            LOAD_ERROR
         }
     }
-}
 
+    override fun getUserGuideSections(language: String): Flow<String> = flow {
+        cache.get(language)?.let { cached ->
+            cached.forEach { emit(it) }
+            return@flow
+        }
+
+        val input = try {
+            context.assets.open("userguide/$language.html")
+        } catch (_: IOException) {
+            emit(LOAD_ERROR)
+            return@flow
+        }
+
+        // Emit each section as soon as the next heading is reached
+        val sections = mutableListOf<String>()
+        input.bufferedReader().use { reader ->
+            val section = StringBuilder()
+            while (true) {
+                val line = reader.readLine() ?: break
+                if (section.isNotEmpty() && line.contains("<h2", ignoreCase = true)) {
+                    sections.add(section.toString())
+                    emit(sections.last())
+                    section.setLength(0)
+                }
+                section.append(line).append('\n')
+            }
+            if (section.isNotEmpty()) {
+                sections.add(section.toString())
+                emit(sections.last())
+            }
+        }
+        cache.put(language, sections)
+    }.flowOn(Dispatchers.IO)
+
+    private companion object {
+        const val LOAD_ERROR = "<p>Could not load user guide.</p>"
+        const val MAX_CACHED_CHARS = 256 * 1024
+    }
+}
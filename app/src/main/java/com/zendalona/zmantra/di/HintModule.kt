@@ -0,0 +1,23 @@
+package com.zendalona.zmantra.di
+
+import android.content.Context
+import com.zendalona.zmantra.data.repository.hint.HintRepositoryImpl
+import com.zendalona.zmantra.domain.repository.HintRepository
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.android.qualifiers.ApplicationContext
+import dagger.hilt.components.SingletonComponent
+import javax.inject.Singleton
+
+@Module
+@InstallIn(SingletonComponent::class)
+object HintModule {
+
+        // Singleton so every hint screen shares the loaded hints
+        @Provides
+        @Singleton
+        fun provideHintRepository(
+                @ApplicationContext context: Context
+        ): HintRepository = HintRepositoryImpl(context)
+}
@@ -0,0 +1,39 @@
+package com.zendalona.zmantra.di
+
+import android.content.Context
+import com.zendalona.zmantra.core.utility.audio.ClipStore
+import com.zendalona.zmantra.core.utility.common.SpeechClipCache
+import com.zendalona.zmantra.core.utility.common.SpeechEngine
+import dagger.Module
+import dagger.Provides
+import dagger.hilt.InstallIn
+import dagger.hilt.android.qualifiers.ApplicationContext
+import dagger.hilt.components.SingletonComponent
+import javax.inject.Singleton
+
+@Module
+@InstallIn(SingletonComponent::class)
+object SpeechModule {
+
+        // Singleton so the TTS service is bound once per process, not once per screen
+        @Provides
+        @Singleton
+        fun provideSpeechEngine(
+                @ApplicationContext context: Context,
+                clips: SpeechClipCache,
+                store: ClipStore
+        ): SpeechEngine = SpeechEngine(context, clips, store)
+
+        @Provides
+        @Singleton
+        fun provideSpeechClipCache(
+                store: ClipStore
+        ): SpeechClipCache = SpeechClipCache(store)
+
+        // One store per process, so every mode shares the same size budget
+        @Provides
+        @Singleton
+        fun provideClipStore(
+                @ApplicationContext context: Context
+        ): ClipStore = ClipStore(context)
+}
@@ -9,12 +9,15 @@ import dagger.Provides
 import dagger.hilt.InstallIn
 import dagger.hilt.android.qualifiers.ApplicationContext
 import dagger.hilt.components.SingletonComponent
+import javax.inject.Singleton
 
 @Module
 @InstallIn(SingletonComponent::class)
 object UserGuideModule {
 
+        // Singleton so the repository's guide cache outlives a single screen
         @Provides
+        @Singleton
         fun provideUserGuideRepository(
                 @ApplicationContext context: Context
         ): UserGuideRepository = UserGuideRepositoryImpl(context)
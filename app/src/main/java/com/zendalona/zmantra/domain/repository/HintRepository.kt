@@ -0,0 +1,9 @@
+package com.zendalona.zmantra.domain.repository
+
+interface HintRepository {
+    /** Hint text for a game mode, or null when the language has none for it. */
+    suspend fun getHint(language: String, mode: String): String?
+
+    /** Every hint of a language, keyed by lower-cased mode. */
+    suspend fun getHints(language: String): Map<String, String>
+}
@@ -1,7 +1,15 @@
 package com.zendalona.zmantra.domain.repository;
 
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+
 interface UserGuideRepository {
     suspend fun getUserGuideHtml(language: String): String
-}
 
+    /**
+     * The guide body in reading order, split before each `<h2>` so the first screenful can be
+     * shown before the rest is read. Defaults to the whole body as one chunk.
+     */
+    fun getUserGuideSections(language: String): Flow<String> = flow { emit(getUserGuideHtml(language)) }
+}
 
@@ -1,6 +1,7 @@
 package com.zendalona.zmantra.domain.usecase.userguide;
 
 import com.zendalona.zmantra.domain.repository.UserGuideRepository
+import kotlinx.coroutines.flow.Flow
 import javax.inject.Inject
 
 class GetUserGuideHtmlUseCase @Inject constructor(
@@ -9,5 +10,8 @@ class GetUserGuideHtmlUseCase @Inject constructor(
     suspend operator fun invoke(language: String): String {
         return repository.getUserGuideHtml(language)
     }
+
+    /** The guide body section by section, for showing the first screenful early. */
+    fun sections(language: String): Flow<String> = repository.getUserGuideSections(language)
 }
 
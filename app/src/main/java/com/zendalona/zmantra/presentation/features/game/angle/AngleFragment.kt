@@ -10,6 +10,7 @@ import android.widget.ImageView
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityUtils
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameAngleBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 import com.zendalona.zmantra.presentation.features.game.angle.util.RotationSensorUtility
@@ -24,8 +25,7 @@ class AngleFragment : BaseGameFragment() {
     private var targetRotation = 0f
     private var baseAzimuth = -1f
     private var questionAnswered = false
-    private var currentIndex = 0
-    private var questions: List<GameQuestion> = emptyList()
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
     private var isFirstQuestion = true
     private lateinit var angleUpdateHandler: Handler
     private var angleUpdateRunnable: Runnable? = null
@@ -78,28 +78,15 @@ class AngleFragment : BaseGameFragment() {
         _binding = null
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions = questions
-        currentIndex = 0
-        baseAzimuth = -1f
-        questionAnswered = false
-        isHolding = false
-
-        if (questions.isEmpty()) {
-            binding.angleQuestion.text = getString(R.string.no_questions_available)
-        } else {
-            showNextQuestion()
-        }
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
+        showNextQuestion()
     }
 
     private fun showNextQuestion() {
-        if (currentIndex >= questions.size) {
-            binding.angleQuestion.text = getString(R.string.game_finished)
-            endGame()
-            return
-        }
+        if (!questions.hasNext()) return
 
-        val question = questions[currentIndex++]
+        val question = questions.next()
         targetRotation = question.answer.toFloat()
         questionAnswered = false
         isHolding = false
@@ -11,9 +11,9 @@ import android.os.Looper
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
-import android.widget.Toast
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameCompassBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 import com.zendalona.zmantra.presentation.features.game.compass.util.CompassUtils
@@ -36,8 +36,8 @@ class CompassFragment : BaseGameFragment(), SensorEventListener {
     private var questionAnswered = false
     private var questionStartTime: Long = 0L
 
-    private val questions: MutableList<GameQuestion> = mutableListOf()
-    private var currentIndex = -1
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
+    private var currentQuestion: GameQuestion? = null
     private var currentAzimuth = 0f
     private lateinit var compassDirections: Array<String>
 
@@ -51,9 +51,10 @@ class CompassFragment : BaseGameFragment(), SensorEventListener {
 
     private val holdHandler = Handler(Looper.getMainLooper())
     private val holdRunnable = Runnable {
+        val question = currentQuestion ?: return@Runnable
         questionAnswered = true
         val elapsed = (System.currentTimeMillis() - questionStartTime) / 1000.0
-        val grade = getGrade(elapsed, questions[currentIndex].timeLimit.toDouble())
+        val grade = getGrade(elapsed, question.timeLimit.toDouble())
         showResultDialog(grade) { generateNewQuestion() }
     }
 
@@ -83,24 +84,16 @@ class CompassFragment : BaseGameFragment(), SensorEventListener {
         }, 500)
     }
 
-    override fun onQuestionsLoaded(loaded: List<GameQuestion>) {
-        if (loaded.isEmpty()) {
-            Toast.makeText(requireContext(), "No compass questions found", Toast.LENGTH_LONG).show()
-            endGame()
-        } else {
-            questions.clear()
-            questions.addAll(loaded)
-            generateNewQuestion()
-        }
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
+        generateNewQuestion()
     }
 
     private fun generateNewQuestion() {
-        if (++currentIndex >= questions.size) {
-            endGame()
-            return
-        }
+        if (!questions.hasNext()) return
 
-        val q = questions[currentIndex]
+        val q = questions.next()
+        currentQuestion = q
         targetDirection = CompassUtils.directionToDegrees(q.expression, compassDirections)
         questionAnswered = false
         questionStartTime = System.currentTimeMillis()
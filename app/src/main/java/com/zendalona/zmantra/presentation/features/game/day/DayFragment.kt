@@ -7,6 +7,7 @@ import android.view.ViewGroup
 import android.widget.Button
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameDayBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 import kotlin.random.Random
@@ -24,8 +25,7 @@ class DayFragment : BaseGameFragment() {
     private var questionStartTime: Long = 0L
     private val totalTime: Double = 30.0 // seconds
     private var isFirstQuestion = true // add this near other vars
-    private var questions: List<GameQuestion> = emptyList()
-    private var questionIndex = 0
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
 
 
     override fun getModeName(): String = "day"
@@ -66,23 +66,15 @@ class DayFragment : BaseGameFragment() {
         }
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions = questions
-        if (questions.isEmpty()) {
-            binding.questionText.text = getString(R.string.no_questions_available)
-        } else {
-            generateQuestion()
-        }
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
+        generateQuestion()
     }
 
     private fun generateQuestion() {
-        if (questionIndex >= questions.size) {
-            endGame()
-            return
-        }
+        if (!questions.hasNext()) return
 
-        // Pick the current question sequentially
-        val currentQuestion = questions[questionIndex]
+        val currentQuestion = questions.next()
         val operand = currentQuestion.answer
 
         // Generate start day randomly
@@ -107,9 +99,6 @@ class DayFragment : BaseGameFragment() {
             binding.questionText.requestFocus()
             isFirstQuestion = false
         }
-
-        // Move to next question for next time
-        questionIndex++
     }
 
     private fun checkAnswer(selected: String) {
@@ -4,13 +4,18 @@ import android.os.Bundle
 import android.os.Handler
 import android.os.Looper
 import android.view.LayoutInflater
+import android.view.FrameMetrics
 import android.view.View
 import android.view.ViewGroup
+import android.view.Window
 import com.zendalona.zmantra.R
+import com.zendalona.zmantra.core.Enum.SpeechPriority
 import com.zendalona.zmantra.core.base.BaseGameFragment
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameDrawingBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 import com.zendalona.zmantra.presentation.features.game.drawing.customView.DrawingView
+import com.zendalona.zmantra.presentation.features.game.drawing.util.ShapeRecognizer
 
 class DrawingFragment : BaseGameFragment() {
 
@@ -18,10 +23,15 @@ class DrawingFragment : BaseGameFragment() {
     private val binding get() = _binding!!
 
     private var drawingView: DrawingView? = null
+    private val frameHandler = Handler(Looper.getMainLooper())
+
+    // Whole-frame cost while drawing, logged per stroke by DrawingView
+    private val frameMetricsListener = Window.OnFrameMetricsAvailableListener { _, metrics, _ ->
+        drawingView?.frameStats?.record(metrics.getMetric(FrameMetrics.TOTAL_DURATION))
+    }
     private var isFirstQuestion = true
     private var currentQuestion: GameQuestion? = null
-    private var currentIndex = 0
-    private var questions: List<GameQuestion> = emptyList()
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
 
     override fun getModeName(): String = "drawing"
 
@@ -32,7 +42,9 @@ class DrawingFragment : BaseGameFragment() {
     ): View {
         _binding = FragmentGameDrawingBinding.inflate(inflater, container, false)
 
-        drawingView = DrawingView(requireContext())
+        drawingView = DrawingView(requireContext()).apply {
+            setOnShapeChangeListener { shape -> announceShape(shape) }
+        }
         binding.drawingContainer.addView(drawingView)
 
         return binding.root
@@ -56,29 +68,15 @@ class DrawingFragment : BaseGameFragment() {
         }
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions = questions
-        if (questions.isEmpty()) {
-            binding.questionText.text = getString(R.string.no_questions_available)
-            binding.submitButton.isEnabled = false
-            binding.resetButton.isEnabled = false
-        } else {
-            currentIndex = 0
-            loadQuestionAt(currentIndex, this.questions)
-        }
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
+        loadNextQuestion()
     }
 
-    private fun loadQuestionAt(index: Int, questions: List<GameQuestion>) {
-        if (index >= questions.size) {
-            announce(binding.root, getString(R.string.task_completed))
-            Handler(Looper.getMainLooper()).postDelayed(
-                { requireActivity().onBackPressedDispatcher.onBackPressed() },
-                3000
-            )
-            return
-        }
+    private fun loadNextQuestion() {
+        if (!questions.hasNext()) return
 
-        currentQuestion = questions[index]
+        currentQuestion = questions.next()
         val shape = currentQuestion?.expression ?: ""
         val instruction = getString(R.string.drawing_task, shape)
 
@@ -97,22 +95,41 @@ class DrawingFragment : BaseGameFragment() {
         attemptCount = 0 // reset attempts for new question
     }
 
+    /** Live feedback while drawing: names the shape once the outline closes into one. */
+    private fun announceShape(shape: ShapeRecognizer.Shape) {
+        val name = when (shape) {
+            ShapeRecognizer.Shape.CIRCLE -> getString(R.string.shape_circle)
+            ShapeRecognizer.Shape.TRIANGLE -> getString(R.string.shape_triangle)
+            ShapeRecognizer.Shape.SQUARE -> getString(R.string.shape_square)
+            ShapeRecognizer.Shape.QUADRILATERAL -> getString(R.string.shape_quadrilateral)
+            ShapeRecognizer.Shape.POLYGON ->
+                getString(R.string.shape_polygon, drawingView?.recognizer?.cornerCount() ?: 0)
+            else -> return
+        }
+        // Ambient, so it never cuts off the question or feedback; a newer shape replaces it
+        tts.speak(getString(R.string.shape_looks_like, name), SpeechPriority.AMBIENT, KEY_SHAPE, null)
+    }
+
     private fun checkAnswer() {
         val message = getString(R.string.moving_to_next_question)
         showNextDialog {
-            currentIndex++
-            loadQuestionAt(currentIndex, questions)
+            loadNextQuestion()
         }
         announce(binding.root, message)
     }
     override fun onResume() {
         super.onResume()
         drawingView?.onResume()
+        requireActivity().window.addOnFrameMetricsAvailableListener(frameMetricsListener, frameHandler)
     }
 
     override fun onPause() {
         super.onPause()
         drawingView?.onPause()
+        requireActivity().window.removeOnFrameMetricsAvailableListener(frameMetricsListener)
     }
 
+    private companion object {
+        const val KEY_SHAPE = "shape"
+    }
 }
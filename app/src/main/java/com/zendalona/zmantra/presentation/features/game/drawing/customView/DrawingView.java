@@ -1,9 +1,12 @@
 package com.zendalona.zmantra.presentation.features.game.drawing.customView;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Path;
+import android.graphics.Rect;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.MotionEvent;
@@ -11,20 +14,45 @@ import android.view.View;
 import android.view.accessibility.AccessibilityManager;
 
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityHelper;
-import com.zendalona.zmantra.presentation.features.game.drawing.util.RDP;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.zendalona.zmantra.core.utility.common.AppLog;
+import com.zendalona.zmantra.presentation.features.game.drawing.util.FrameStats;
+import com.zendalona.zmantra.presentation.features.game.drawing.util.SegmentBounds;
+import com.zendalona.zmantra.presentation.features.game.drawing.util.ShapeRecognizer;
+import com.zendalona.zmantra.presentation.features.game.drawing.util.StrokeBuffer;
 
 public class DrawingView extends View {
 
     private static final String TAG = "DrawingView";
 
+    // Simplification tolerance for shape recognition, about the size of hand jitter
+    private static final float RECOGNITION_EPSILON_DP = 8f;
+
+    // Live tail length before it is drawn into the committed bitmap
+    private static final int TAIL_POINTS = 32;
+
+    /** Called on the main thread whenever the live classification of the drawing changes. */
+    public interface OnShapeChangeListener {
+        void onShapeChanged(ShapeRecognizer.Shape shape);
+    }
+
     private Paint paint;
-    private Path path;
-    private List<float[]> points; // All points from all strokes
-    private List<List<float[]>> strokes = new ArrayList<>();
-    private List<float[]> currentStroke;
+    private Path path; // Live tail of the current stroke, not yet in the committed bitmap
+    private int tailPoints;
+    private float lastX, lastY;
+
+    // Finished segments; each frame draws this bitmap plus the short tail, however long the drawing
+    private Bitmap committed;
+    private Canvas committedCanvas;
+
+    private final Rect dirty = new Rect();
+    private final SegmentBounds newSegments = new SegmentBounds();
+    private final FrameStats drawStats = new FrameStats("onDraw");
+    private final FrameStats frameStats = new FrameStats("frame");
+    private final StrokeBuffer strokes = new StrokeBuffer(); // All points from all strokes
+    private boolean stroking;
+    private ShapeRecognizer recognizer;
+    private ShapeRecognizer.Shape shape = ShapeRecognizer.Shape.UNKNOWN;
+    private OnShapeChangeListener shapeListener;
 
     private boolean isDrawingComplete = false;
     private AccessibilityManager accessibilityManager;
@@ -44,221 +72,192 @@ public class DrawingView extends View {
         paint.setColor(0xFFD14D42); // Your chosen color
         paint.setStrokeWidth(10);
         paint.setStyle(Paint.Style.STROKE);
+        // Round ends hide the seams where the tail meets the committed bitmap
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        paint.setStrokeJoin(Paint.Join.ROUND);
         paint.setAntiAlias(true);
 
         path = new Path();
-        points = new ArrayList<>();
+        recognizer = new ShapeRecognizer(RECOGNITION_EPSILON_DP * context.getResources().getDisplayMetrics().density);
         accessibilityManager = (AccessibilityManager) context.getSystemService(Context.ACCESSIBILITY_SERVICE);
 
-        Log.d(TAG, "DrawingView initialized");
+        if (AppLog.ENABLED) Log.d(TAG, "DrawingView initialized");
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        if (committed != null) committed.recycle();
+        committed = null;
+        committedCanvas = null;
+        if (w == 0 || h == 0) return;
+
+        committed = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+        committedCanvas = new Canvas(committed);
+        // Replay what was drawn so far, leaving the live tail to the current stroke
+        int tailStart = strokes.pointCount() - (stroking ? tailPoints + 1 : 0);
+        Path replay = new Path();
+        for (int s = 0; s < strokes.strokeCount(); s++) {
+            int end = Math.min(strokes.strokeEnd(s), tailStart + 1);
+            for (int i = strokes.strokeStart(s); i < end; i++) {
+                if (i == strokes.strokeStart(s)) replay.moveTo(strokes.x(i), strokes.y(i));
+                else replay.lineTo(strokes.x(i), strokes.y(i));
+            }
+        }
+        committedCanvas.drawPath(replay, paint);
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        long start = System.nanoTime();
+        if (committed != null) canvas.drawBitmap(committed, 0, 0, null);
         canvas.drawPath(path, paint);
+        drawStats.record(System.nanoTime() - start);
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        float x = event.getX();
-        float y = event.getY();
-
-        Log.d(TAG, "onTouchEvent action=" + event.getAction() + " at (" + x + ", " + y + ")");
-
-        switch (event.getAction()) {
+        // No logging or allocation per event here: a fast stroke delivers hundreds of samples
+        switch (event.getActionMasked()) {
             case MotionEvent.ACTION_DOWN:
-                currentStroke = new ArrayList<>();
-                currentStroke.add(new float[]{x, y});
-                strokes.add(currentStroke);
-
-                path.moveTo(x, y);
-                Log.d(TAG, "ACTION_DOWN - start stroke at (" + x + ", " + y + ")");
+                strokes.startStroke();
+                strokes.add(event.getX(), event.getY());
+                recognizer.add(event.getX(), event.getY());
+                stroking = true;
+
+                path.rewind();
+                path.moveTo(event.getX(), event.getY());
+                tailPoints = 0;
+                lastX = event.getX();
+                lastY = event.getY();
+                drawStats.reset();
+                frameStats.reset();
                 return true;
 
             case MotionEvent.ACTION_MOVE:
-                currentStroke.add(new float[]{x, y});
-                path.lineTo(x, y);
-                invalidate();
-                Log.d(TAG, "ACTION_MOVE - added point (" + x + ", " + y + ")");
+                if (!stroking) return false;
+                addSamples(event);
+                updateShape();
+                if (tailPoints >= TAIL_POINTS) commitTail();
                 return true;
 
             case MotionEvent.ACTION_UP:
-                currentStroke.add(new float[]{x, y});
+            case MotionEvent.ACTION_CANCEL:
+                if (!stroking) return false;
+                addSamples(event);
+                updateShape();
+                commitTail();
+                stroking = false;
                 isDrawingComplete = true;
-                Log.d(TAG, "ACTION_UP - end stroke at (" + x + ", " + y + ")");
+                if (AppLog.ENABLED) Log.d(TAG, "Stroke " + strokes.strokeCount() + " ended, " + strokes.pointCount()
+                        + " points in total; " + drawStats + "; " + frameStats);
                 return true;
         }
         return false;
     }
 
-    public void clearCanvas() {
-        path.reset();
-        strokes.clear();
-        points.clear();
-        currentStroke = null;
-        isDrawingComplete = false;
-        invalidate();
-
-        Log.d(TAG, "Canvas cleared");
-    }
-
-    public List<float[]> getAllPoints() {
-        List<float[]> allPoints = new ArrayList<>();
-        for (List<float[]> stroke : strokes) {
-            allPoints.addAll(stroke);
+    /**
+     * Adds the samples batched since the last event, oldest first, then the current one, and
+     * invalidates only the area the new segments cover.
+     */
+    @SuppressWarnings("deprecation")
+    private void addSamples(MotionEvent event) {
+        newSegments.start(lastX, lastY);
+        int history = event.getHistorySize();
+        for (int h = 0; h < history; h++) {
+            addSample(event.getHistoricalX(h), event.getHistoricalY(h));
         }
-        Log.d(TAG, "getAllPoints returned " + allPoints.size() + " points");
-        return allPoints;
+        addSample(event.getX(), event.getY());
+
+        // Half the stroke width, plus a pixel of anti-aliasing
+        float pad = paint.getStrokeWidth() / 2 + 1;
+        dirty.set(newSegments.left(pad), newSegments.top(pad), newSegments.right(pad), newSegments.bottom(pad));
+        // Hardware-accelerated windows redraw the whole view and ignore the rect, but the frame
+        // is still just the bitmap and the tail; software layers repaint only the rect
+        invalidate(dirty);
     }
 
-    public boolean isShapeCorrect(List<float[]> points, int expectedCorners, float epsilon) {
-        Log.d(TAG, "isShapeCorrect called with expectedCorners=" + expectedCorners + ", epsilon=" + epsilon);
-
-        if (points == null || points.size() < 3) {
-            Log.d(TAG, "Too few points to form shape.");
-            return false;
-        }
-
-        List<float[]> simplified = RDP.rdp(points, epsilon);
-        Log.d(TAG, "RDP simplified points count: " + simplified.size());
-
-        int n = simplified.size();
-        if (n < 3) {
-            Log.d(TAG, "Simplified points too few for polygon.");
-            return false;
-        }
-
-        float[] first = simplified.get(0);
-        float[] last = simplified.get(n - 1);
-        double dist = Math.hypot(first[0] - last[0], first[1] - last[1]);
-        Log.d(TAG, "Distance between first and last points: " + dist);
-        if (dist > epsilon * 2) {
-            Log.d(TAG, "Shape not closed enough.");
-            return false;
-        }
-
-        int validCorners = 0;
-        for (int i = 0; i < n; i++) {
-            float[] p1 = simplified.get((i - 1 + n) % n);
-            float[] p2 = simplified.get(i);
-            float[] p3 = simplified.get((i + 1) % n);
-
-            double angle = calculateAngle(p1, p2, p3);
-            Log.d(TAG, "Corner " + i + " angle: " + angle);
-
-            if (angle > 20 && angle < 160) {
-                validCorners++;
-            }
-        }
-        Log.d(TAG, "Valid corners counted: " + validCorners);
-
-        if (!(validCorners >= expectedCorners - 1 && validCorners <= expectedCorners + 1)) {
-            Log.d(TAG, "Corner count not in acceptable range. Expected around " + expectedCorners);
-            return false;
-        }
-
-        if (expectedCorners == 4) {
-            double perimeter = calculatePerimeter(simplified);
-            double area = calculatePolygonArea(simplified);
-
-            float[] bounds = getBoundingBox(simplified);
-            double width = bounds[2] - bounds[0];
-            double height = bounds[3] - bounds[1];
-            double aspectRatio = width / height;
-
-            Log.d(TAG, "Perimeter: " + perimeter + ", Area: " + area);
-            Log.d(TAG, "Aspect ratio: " + aspectRatio);
-
-            if (aspectRatio < 0.5 || aspectRatio > 2.0) {
-                Log.d(TAG, "Aspect ratio outside allowed range.");
-                return false;
-            }
+    private void addSample(float x, float y) {
+        strokes.add(x, y);
+        recognizer.add(x, y);
+        path.lineTo(x, y);
+        tailPoints++;
+        newSegments.add(x, y);
+        lastX = x;
+        lastY = y;
+    }
 
-            double compactness = (4 * Math.PI * area) / (perimeter * perimeter);
-            Log.d(TAG, "Compactness: " + compactness);
-            if (compactness < 0.1) {
-                Log.d(TAG, "Shape too irregular (low compactness).");
-                return false;
-            }
-        }
+    /** Draws the live tail into the committed bitmap and restarts it at the last point. */
+    private void commitTail() {
+        if (committedCanvas == null) return;
+        committedCanvas.drawPath(path, paint);
+        path.rewind();
+        path.moveTo(lastX, lastY);
+        tailPoints = 0;
+    }
 
-        Log.d(TAG, "Shape passes all checks.");
-        return true;
+    // Once per event, not per sample: classify() is cheap but the listener may speak
+    private void updateShape() {
+        ShapeRecognizer.Shape current = recognizer.classify();
+        if (current == shape) return;
+        shape = current;
+        if (AppLog.ENABLED) Log.d(TAG, "Shape now " + shape);
+        if (shapeListener != null) shapeListener.onShapeChanged(shape);
     }
 
-    private double calculatePerimeter(List<float[]> points) {
-        double perimeter = 0;
-        int n = points.size();
-        for (int i = 0; i < n; i++) {
-            float[] p1 = points.get(i);
-            float[] p2 = points.get((i + 1) % n);
-            double d = Math.hypot(p1[0] - p2[0], p1[1] - p2[1]);
-            perimeter += d;
-            Log.d(TAG, "Edge " + i + " length: " + d);
-        }
-        Log.d(TAG, "Total perimeter: " + perimeter);
-        return perimeter;
+    public void setOnShapeChangeListener(OnShapeChangeListener listener) {
+        shapeListener = listener;
     }
 
-    private double calculatePolygonArea(List<float[]> points) {
-        double area = 0;
-        int n = points.size();
-        for (int i = 0; i < n; i++) {
-            float[] p1 = points.get(i);
-            float[] p2 = points.get((i + 1) % n);
-            double term = p1[0] * p2[1] - p2[0] * p1[1];
-            area += term;
-            Log.d(TAG, "Area term " + i + ": " + term);
-        }
-        area = Math.abs(area / 2.0);
-        Log.d(TAG, "Polygon area: " + area);
-        return area;
+    /** The live classification of everything drawn since the last {@link #clearCanvas()}. */
+    public ShapeRecognizer.Shape getShape() {
+        return shape;
     }
 
-    private float[] getBoundingBox(List<float[]> points) {
-        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
-        float maxX = Float.MIN_VALUE, maxY = Float.MIN_VALUE;
+    public ShapeRecognizer getRecognizer() {
+        return recognizer;
+    }
 
-        for (float[] p : points) {
-            if (p[0] < minX) minX = p[0];
-            if (p[1] < minY) minY = p[1];
-            if (p[0] > maxX) maxX = p[0];
-            if (p[1] > maxY) maxY = p[1];
-        }
+    public void clearCanvas() {
+        path.reset();
+        tailPoints = 0;
+        if (committed != null) committed.eraseColor(Color.TRANSPARENT);
+        strokes.clear();
+        recognizer.clear();
+        shape = ShapeRecognizer.Shape.UNKNOWN;
+        stroking = false;
+        isDrawingComplete = false;
+        invalidate();
 
-        Log.d(TAG, "Bounding box: minX=" + minX + ", minY=" + minY + ", maxX=" + maxX + ", maxY=" + maxY);
-        return new float[]{minX, minY, maxX, maxY};
+        if (AppLog.ENABLED) Log.d(TAG, "Canvas cleared");
     }
 
-    private static double calculateAngle(float[] p1, float[] p2, float[] p3) {
-        double dx1 = p1[0] - p2[0];
-        double dy1 = p1[1] - p2[1];
-        double dx2 = p3[0] - p2[0];
-        double dy2 = p3[1] - p2[1];
-
-        double angle1 = Math.atan2(dy1, dx1);
-        double angle2 = Math.atan2(dy2, dx2);
+    /** Time spent in {@link #onDraw} for the current or last stroke. */
+    public FrameStats getDrawStats() {
+        return drawStats;
+    }
 
-        double result = Math.toDegrees(angle2 - angle1);
-        if (result < 0) {
-            result += 360;
-        }
+    /** Whole-frame durations for the current or last stroke, fed by the hosting screen. */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
 
-        Log.d(TAG, "Angle calculated between points: " + result);
-        return result;
+    /** Every point of every stroke, in drawing order, without copying. */
+    public StrokeBuffer getStrokes() {
+        return strokes;
     }
 
     // === New lifecycle-like methods to call from your Activity ===
 
     public void onResume() {
-        Log.d(TAG, "DrawingView onResume called: disabling Explore-by-Touch");
+        if (AppLog.ENABLED) Log.d(TAG, "DrawingView onResume called: disabling Explore-by-Touch");
         // Disable Explore-by-Touch passthrough region so touch events work properly
         AccessibilityHelper.disableExploreByTouch(AccessibilityHelper.getAccessibilityService());
     }
 
     public void onPause() {
-        Log.d(TAG, "DrawingView onPause called: resetting Explore-by-Touch");
+        if (AppLog.ENABLED) Log.d(TAG, "DrawingView onPause called: resetting Explore-by-Touch");
         // Reset Explore-by-Touch passthrough region
         AccessibilityHelper.resetExploreByTouch(AccessibilityHelper.getAccessibilityService());
     }
@@ -0,0 +1,49 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util;
+
+import java.util.Locale;
+
+/**
+ * Count, mean and worst case of a series of frame durations. Thread-safe, so frame metrics
+ * delivered on another thread can be recorded into it.
+ */
+public class FrameStats {
+
+    private final String name;
+    private int frames;
+    private long totalNanos;
+    private long maxNanos;
+
+    public FrameStats(String name) {
+        this.name = name;
+    }
+
+    public synchronized void record(long nanos) {
+        frames++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public synchronized void reset() {
+        frames = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    public synchronized int frames() {
+        return frames;
+    }
+
+    public synchronized double averageMillis() {
+        return frames == 0 ? 0 : totalNanos / (frames * 1e6);
+    }
+
+    public synchronized double maxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(Locale.US, "%s: %d frames, avg %.2f ms, max %.2f ms",
+                name, frames, averageMillis(), maxMillis());
+    }
+}
@@ -1,48 +1,98 @@
 package com.zendalona.zmantra.presentation.features.game.drawing.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
+/**
+ * Ramer–Douglas–Peucker polyline simplification.
+ *
+ * {@link #simplify} runs over packed x/y coordinates with an explicit stack of index ranges and
+ * marks the kept points in a {@link BitSet}, so no sublists are built. Distances are compared
+ * squared against the chord length, which avoids {@code Math.hypot} and the per-point division.
+ * {@link StreamingRdp} simplifies as points arrive instead.
+ */
 public class RDP {
+
     public static List<float[]> rdp(List<float[]> points, float epsilon) {
         if (points.size() < 3) return points;
-        int index = -1;
-        float maxDist = 0;
-        float[] start = points.get(0);
-        float[] end = points.get(points.size() - 1);
-
-        for (int i = 1; i < points.size() - 1; i++) {
-            float dist = perpendicularDistance(points.get(i), start, end);
-            if (dist > maxDist) {
-                index = i;
-                maxDist = dist;
-            }
+        int n = points.size();
+        float[] coords = new float[n * 2];
+        for (int i = 0; i < n; i++) {
+            coords[i * 2] = points.get(i)[0];
+            coords[i * 2 + 1] = points.get(i)[1];
         }
 
-        if (maxDist > epsilon) {
-            List<float[]> left = rdp(points.subList(0, index + 1), epsilon);
-            List<float[]> right = rdp(points.subList(index, points.size()), epsilon);
-            List<float[]> result = new ArrayList<>(left);
-            result.addAll(right.subList(1, right.size()));
-            return result;
-        } else {
-            List<float[]> result = new ArrayList<>();
-            result.add(start);
-            result.add(end);
-            return result;
+        BitSet kept = new BitSet(n);
+        simplify(coords, 0, n, epsilon, kept);
+
+        List<float[]> result = new ArrayList<>(kept.cardinality());
+        for (int i = kept.nextSetBit(0); i >= 0; i = kept.nextSetBit(i + 1)) {
+            result.add(points.get(i));
         }
+        return result;
     }
 
-    private static float perpendicularDistance(float[] p, float[] start, float[] end) {
-        float dx = end[0] - start[0];
-        float dy = end[1] - start[1];
-        float mag = (float) Math.hypot(dx, dy);
-        if (mag == 0) return (float) Math.hypot(p[0] - start[0], p[1] - start[1]);
+    /**
+     * Simplifies points {@code [from, to)} of {@code coords} (x0, y0, x1, y1, ...) and sets the
+     * index of every kept point in {@code kept}. Returns the number of points kept.
+     */
+    public static int simplify(float[] coords, int from, int to, float epsilon, BitSet kept) {
+        int count = to - from;
+        if (count <= 0) return 0;
+        kept.set(from);
+        if (count == 1) return 1;
+        kept.set(to - 1);
 
-        float u = ((p[0] - start[0]) * dx + (p[1] - start[1]) * dy) / (mag * mag);
-        float ix = start[0] + u * dx;
-        float iy = start[1] + u * dy;
-        return (float) Math.hypot(p[0] - ix, p[1] - iy);
-    }
+        double epsilonSq = (double) epsilon * epsilon;
+        int keptCount = 2;
+
+        // Pairs of (first, last) point indices still to split
+        int[] stack = new int[32];
+        int top = 0;
+        stack[top++] = from;
+        stack[top++] = to - 1;
+
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            if (last - first < 2) continue;
 
-}
\ No newline at end of file
+            double sx = coords[first * 2], sy = coords[first * 2 + 1];
+            double dx = coords[last * 2] - sx, dy = coords[last * 2 + 1] - sy;
+            double lengthSq = dx * dx + dy * dy;
+
+            // For a fixed chord, the farthest point has the largest |cross| (or offset from the
+            // start when the chord has no length), so no division is needed to find it
+            int index = -1;
+            double max = 0;
+            for (int i = first + 1; i < last; i++) {
+                double px = coords[i * 2] - sx, py = coords[i * 2 + 1] - sy;
+                double d;
+                if (lengthSq == 0) {
+                    d = px * px + py * py;
+                } else {
+                    double cross = px * dy - py * dx;
+                    d = cross * cross;
+                }
+                if (d > max) {
+                    index = i;
+                    max = d;
+                }
+            }
+
+            boolean split = lengthSq == 0 ? max > epsilonSq : max > epsilonSq * lengthSq;
+            if (split) {
+                kept.set(index);
+                keptCount++;
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = first;
+                stack[top++] = index;
+                stack[top++] = index;
+                stack[top++] = last;
+            }
+        }
+        return keptCount;
+    }
+}
@@ -0,0 +1,43 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util;
+
+/**
+ * Bounding box of a polyline being extended point by point, kept in floats and rounded out to
+ * whole pixels only when read, so a segment is covered from the point it starts at however far
+ * it reaches and whether or not its ends fall on integer coordinates.
+ */
+public class SegmentBounds {
+
+    private float minX, minY, maxX, maxY;
+
+    /** Starts over at the point the next segments continue from. */
+    public void start(float x, float y) {
+        minX = maxX = x;
+        minY = maxY = y;
+    }
+
+    public void add(float x, float y) {
+        if (x < minX) minX = x;
+        if (x > maxX) maxX = x;
+        if (y < minY) minY = y;
+        if (y > maxY) maxY = y;
+    }
+
+    /** Leftmost pixel column touched by a stroke {@code pad} pixels wider than the path. */
+    public int left(float pad) {
+        return (int) Math.floor(minX - pad);
+    }
+
+    public int top(float pad) {
+        return (int) Math.floor(minY - pad);
+    }
+
+    /** Exclusive right edge, as in {@code Rect}. */
+    public int right(float pad) {
+        return (int) Math.floor(maxX + pad) + 1;
+    }
+
+    /** Exclusive bottom edge, as in {@code Rect}. */
+    public int bottom(float pad) {
+        return (int) Math.floor(maxY + pad) + 1;
+    }
+}
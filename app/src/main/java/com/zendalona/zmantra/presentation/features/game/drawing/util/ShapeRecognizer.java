@@ -0,0 +1,205 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util;
+
+import java.util.Arrays;
+
+/**
+ * Classifies a drawing while it is being drawn.
+ *
+ * Every {@link #add} updates running features in constant time: bounding box, centroid, signed
+ * area (shoelace), and the length and turning-angle histogram of the polyline of vertices that
+ * {@link StreamingRdp} keeps. Measuring length on those vertices ignores hand jitter.
+ * {@link #classify()} only combines these with the few turns at the still-open ends of the path,
+ * so it is cheap enough to call on every touch event. All strokes are treated as one path in
+ * drawing order.
+ */
+public class ShapeRecognizer {
+
+    public enum Shape { UNKNOWN, OPEN, CIRCLE, TRIANGLE, SQUARE, QUADRILATERAL, POLYGON }
+
+    static final int BIN_DEGREES = 15;
+    static final int BINS = 180 / BIN_DEGREES;
+
+    // Turns of at least this many degrees count as corners; a regular hexagon turns 60
+    static final int CORNER_DEGREES = 45;
+
+    private static final int MIN_POINTS = 10;
+    private static final double CIRCLE_COMPACTNESS = 0.7;
+    private static final double ROUND_COMPACTNESS = 0.95;
+    private static final float CLOSE_FRACTION = 0.2f;
+
+    private final float epsilon;
+    private final StreamingRdp rdp;
+    private final int[] turns = new int[BINS];
+    private int processedVertices;
+
+    private int count;
+    private float firstX, firstY, lastX, lastY;
+    private float minX, minY, maxX, maxY;
+    private double sumX, sumY;
+    private double twiceArea; // Shoelace sum along the path, without the closing edge
+    private double vertexLength; // Along the kept vertices
+
+    /** {@code epsilon} is the simplification tolerance in pixels, the size of hand jitter. */
+    public ShapeRecognizer(float epsilon) {
+        this.epsilon = epsilon;
+        this.rdp = new StreamingRdp(epsilon);
+    }
+
+    public void add(float x, float y) {
+        if (count == 0) {
+            firstX = minX = maxX = x;
+            firstY = minY = maxY = y;
+        } else {
+            twiceArea += (double) lastX * y - (double) x * lastY;
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+        sumX += x;
+        sumY += y;
+        lastX = x;
+        lastY = y;
+        count++;
+
+        rdp.add(x, y);
+        StrokeBuffer vertices = rdp.simplified();
+        // A vertex's turn is final once the vertex after it is kept
+        for (; processedVertices < vertices.pointCount(); processedVertices++) {
+            int v = processedVertices;
+            if (v >= 1) {
+                vertexLength += Math.hypot(vertices.x(v) - vertices.x(v - 1), vertices.y(v) - vertices.y(v - 1));
+            }
+            if (v >= 2) {
+                double turn = turnDegrees(vertices.x(v - 2), vertices.y(v - 2),
+                        vertices.x(v - 1), vertices.y(v - 1), vertices.x(v), vertices.y(v));
+                turns[Math.min((int) (turn / BIN_DEGREES), BINS - 1)]++;
+            }
+        }
+    }
+
+    public void clear() {
+        rdp.clear();
+        Arrays.fill(turns, 0);
+        processedVertices = 0;
+        count = 0;
+        firstX = firstY = lastX = lastY = 0;
+        minX = minY = maxX = maxY = 0;
+        sumX = sumY = twiceArea = vertexLength = 0;
+    }
+
+    public int pointCount() {
+        return count;
+    }
+
+    public float width() {
+        return count == 0 ? 0 : maxX - minX;
+    }
+
+    public float height() {
+        return count == 0 ? 0 : maxY - minY;
+    }
+
+    public float centroidX() {
+        return count == 0 ? 0 : (float) (sumX / count);
+    }
+
+    public float centroidY() {
+        return count == 0 ? 0 : (float) (sumY / count);
+    }
+
+    /** Area enclosed by the path and the edge back to its start; the sign gives the winding. */
+    public double signedArea() {
+        if (count == 0) return 0;
+        return (twiceArea + (double) lastX * firstY - (double) firstX * lastY) / 2;
+    }
+
+    /** Length of the simplified path including the edge back to its start. */
+    public double perimeter() {
+        if (count == 0) return 0;
+        StrokeBuffer vertices = rdp.simplified();
+        int k = vertices.pointCount() - 1;
+        return vertexLength + Math.hypot(lastX - vertices.x(k), lastY - vertices.y(k))
+                + Math.hypot(firstX - lastX, firstY - lastY);
+    }
+
+    /** 1 for a circle, about 0.79 for a square and 0.6 for an equilateral triangle. */
+    public double compactness() {
+        double perimeter = perimeter();
+        return perimeter == 0 ? 0 : 4 * Math.PI * Math.abs(signedArea()) / (perimeter * perimeter);
+    }
+
+    /** Number of finished vertices whose turn falls into {@code bin}, of {@link #BIN_DEGREES} each. */
+    public int turnCount(int bin) {
+        return turns[bin];
+    }
+
+    public boolean isClosed() {
+        float diagonal = (float) Math.hypot(width(), height());
+        float gap = (float) Math.hypot(firstX - lastX, firstY - lastY);
+        return gap <= Math.max(2 * epsilon, CLOSE_FRACTION * diagonal);
+    }
+
+    /**
+     * Corners of the closed path: finished turns from the histogram plus the turns where the
+     * path's end meets its start.
+     */
+    public int cornerCount() {
+        int corners = 0;
+        for (int bin = CORNER_DEGREES / BIN_DEGREES; bin < BINS; bin++) corners += turns[bin];
+
+        StrokeBuffer vertices = rdp.simplified();
+        int k = vertices.pointCount() - 1;
+        if (k < 1) return corners;
+
+        // The newest point is a vertex too unless it sits on the last kept one
+        float endX = vertices.x(k), endY = vertices.y(k);
+        float beforeX = vertices.x(k - 1), beforeY = vertices.y(k - 1);
+        if (Math.hypot(lastX - endX, lastY - endY) > epsilon) {
+            if (isCorner(beforeX, beforeY, endX, endY, lastX, lastY)) corners++;
+            beforeX = endX;
+            beforeY = endY;
+            endX = lastX;
+            endY = lastY;
+        }
+
+        float startX = vertices.x(0), startY = vertices.y(0);
+        float nextX = vertices.x(1), nextY = vertices.y(1);
+        if (Math.hypot(endX - startX, endY - startY) > epsilon) {
+            // A real closing edge: turns where it leaves the end and where it reaches the start
+            if (isCorner(beforeX, beforeY, endX, endY, startX, startY)) corners++;
+            if (isCorner(endX, endY, startX, startY, nextX, nextY)) corners++;
+        } else if (isCorner(beforeX, beforeY, startX, startY, nextX, nextY)) {
+            corners++;
+        }
+        return corners;
+    }
+
+    public Shape classify() {
+        if (count < MIN_POINTS || Math.hypot(width(), height()) < 4 * epsilon) return Shape.UNKNOWN;
+        if (!isClosed()) return Shape.OPEN;
+
+        int corners = cornerCount();
+        double compactness = compactness();
+        // Small circles simplify to a few vertices, but no polygon is this round
+        if (compactness >= ROUND_COMPACTNESS) return Shape.CIRCLE;
+        if (corners <= 2) return compactness >= CIRCLE_COMPACTNESS ? Shape.CIRCLE : Shape.UNKNOWN;
+        if (corners == 3) return Shape.TRIANGLE;
+        if (corners == 4) {
+            float aspect = width() / Math.max(height(), 1f);
+            return aspect >= 0.8f && aspect <= 1.25f ? Shape.SQUARE : Shape.QUADRILATERAL;
+        }
+        return Shape.POLYGON;
+    }
+
+    private static boolean isCorner(float ax, float ay, float bx, float by, float cx, float cy) {
+        return turnDegrees(ax, ay, bx, by, cx, cy) >= CORNER_DEGREES;
+    }
+
+    /** Change of direction at b, from 0 (straight on) to 180 (doubling back). */
+    static double turnDegrees(float ax, float ay, float bx, float by, float cx, float cy) {
+        double ux = bx - ax, uy = by - ay;
+        double vx = cx - bx, vy = cy - by;
+        return Math.toDegrees(Math.atan2(Math.abs(ux * vy - uy * vx), ux * vx + uy * vy));
+    }
+}
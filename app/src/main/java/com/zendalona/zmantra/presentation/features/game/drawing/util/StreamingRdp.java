@@ -0,0 +1,103 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util;
+
+/**
+ * Simplifies strokes while they are drawn, one point at a time.
+ *
+ * Uses an opening window: points after the last kept point stay pending while every one of
+ * them is within {@code epsilon} of the chord to the newest point. When the newest point breaks
+ * that, the pending point farthest from the chord is kept, as {@link RDP#simplify} would, and
+ * the points after it form the next window. Dropped points stay close to the kept polyline,
+ * though unlike RDP they may stray slightly past {@code epsilon}. The window is capped, so each
+ * point costs at most {@link #MAX_WINDOW} distance checks and only the output buffer ever grows.
+ */
+public class StreamingRdp {
+
+    static final int MAX_WINDOW = 64;
+
+    private final double epsilonSq;
+    private final StrokeBuffer kept = new StrokeBuffer();
+
+    // Pending points; window[0..1] is the last kept point
+    private final float[] window = new float[MAX_WINDOW * 2];
+    private int windowSize;
+
+    public StreamingRdp(float epsilon) {
+        this.epsilonSq = (double) epsilon * epsilon;
+    }
+
+    /** Ends the current stroke, if any, and begins a new one. */
+    public void startStroke() {
+        finishStroke();
+        kept.startStroke();
+    }
+
+    public void add(float x, float y) {
+        if (windowSize == 0) {
+            keep(x, y);
+            return;
+        }
+        int split = windowSize == MAX_WINDOW ? windowSize - 1 : farthestOutside(x, y);
+        if (split > 0) {
+            kept.add(window[split * 2], window[split * 2 + 1]);
+            // The kept point anchors a window of the points after it
+            windowSize -= split;
+            System.arraycopy(window, split * 2, window, 0, windowSize * 2);
+        }
+        window[windowSize * 2] = x;
+        window[windowSize * 2 + 1] = y;
+        windowSize++;
+    }
+
+    /** Keeps the last pending point, so the stroke ends where it was drawn. */
+    public void finishStroke() {
+        if (windowSize > 1) {
+            int last = (windowSize - 1) * 2;
+            kept.add(window[last], window[last + 1]);
+        }
+        windowSize = 0;
+    }
+
+    /**
+     * The kept points so far, stroke by stroke. Until {@link #finishStroke()}, the current
+     * stroke lacks its pending tail.
+     */
+    public StrokeBuffer simplified() {
+        return kept;
+    }
+
+    public void clear() {
+        kept.clear();
+        windowSize = 0;
+    }
+
+    /**
+     * Index of the pending point farthest from the chord to ({@code x}, {@code y}), or -1 when
+     * every one is within epsilon. Picking the farthest point, not the newest, keeps a corner
+     * as one vertex instead of cutting it between two.
+     */
+    private int farthestOutside(float x, float y) {
+        double sx = window[0], sy = window[1];
+        double dx = x - sx, dy = y - sy;
+        double lengthSq = dx * dx + dy * dy;
+        int index = -1;
+        double max = 0;
+        for (int i = 1; i < windowSize; i++) {
+            double px = window[i * 2] - sx, py = window[i * 2 + 1] - sy;
+            double cross = px * dy - py * dx;
+            double d = lengthSq == 0 ? px * px + py * py : cross * cross;
+            if (d > max) {
+                index = i;
+                max = d;
+            }
+        }
+        boolean outside = lengthSq == 0 ? max > epsilonSq : max > epsilonSq * lengthSq;
+        return outside ? index : -1;
+    }
+
+    private void keep(float x, float y) {
+        kept.add(x, y);
+        window[0] = x;
+        window[1] = y;
+        windowSize = 1;
+    }
+}
@@ -0,0 +1,91 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Points of every stroke in one drawing, packed into a single growable {@code float[]} as
+ * x0, y0, x1, y1, ... with a table of the index where each stroke starts.
+ *
+ * Adding a point writes two floats, so the touch path allocates nothing once the arrays have
+ * grown to fit the drawing; {@link #clear()} keeps that capacity for the next one.
+ */
+public class StrokeBuffer {
+
+    private static final int INITIAL_POINTS = 512;
+    private static final int INITIAL_STROKES = 8;
+
+    private float[] coords = new float[INITIAL_POINTS * 2];
+    private int pointCount;
+
+    private int[] strokeStarts = new int[INITIAL_STROKES];
+    private int strokeCount;
+
+    /** Begins a new stroke; following {@link #add} calls extend it. */
+    public void startStroke() {
+        if (strokeCount == strokeStarts.length) {
+            strokeStarts = Arrays.copyOf(strokeStarts, strokeCount * 2);
+        }
+        strokeStarts[strokeCount++] = pointCount;
+    }
+
+    /** Appends a point to the current stroke, starting one if there is none. */
+    public void add(float x, float y) {
+        if (strokeCount == 0) startStroke();
+        if (pointCount * 2 == coords.length) {
+            coords = Arrays.copyOf(coords, coords.length * 2);
+        }
+        coords[pointCount * 2] = x;
+        coords[pointCount * 2 + 1] = y;
+        pointCount++;
+    }
+
+    public void clear() {
+        pointCount = 0;
+        strokeCount = 0;
+    }
+
+    public int pointCount() {
+        return pointCount;
+    }
+
+    public int strokeCount() {
+        return strokeCount;
+    }
+
+    /** Index of the first point of stroke {@code stroke}. */
+    public int strokeStart(int stroke) {
+        return strokeStarts[stroke];
+    }
+
+    /** Index just past the last point of stroke {@code stroke}. */
+    public int strokeEnd(int stroke) {
+        return stroke + 1 < strokeCount ? strokeStarts[stroke + 1] : pointCount;
+    }
+
+    public float x(int point) {
+        return coords[point * 2];
+    }
+
+    public float y(int point) {
+        return coords[point * 2 + 1];
+    }
+
+    /**
+     * The backing array, valid for the first {@link #pointCount()} points until the next
+     * {@link #add}. Callers must not modify it.
+     */
+    public float[] coords() {
+        return coords;
+    }
+
+    /** Copies every point into {@code float[]{x, y}} pairs, for code that still takes lists. */
+    public List<float[]> toPointList() {
+        List<float[]> points = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            points.add(new float[]{coords[i * 2], coords[i * 2 + 1]});
+        }
+        return points;
+    }
+}
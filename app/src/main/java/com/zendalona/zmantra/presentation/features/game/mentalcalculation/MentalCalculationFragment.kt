@@ -16,6 +16,7 @@ import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityUtils
 import com.zendalona.zmantra.core.utility.common.TTSHelper
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameMentalCalculationBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 
@@ -24,8 +25,8 @@ class MentalCalculationFragment : BaseGameFragment() {
     private var binding: FragmentGameMentalCalculationBinding? = null
     private val handler = Handler(Looper.getMainLooper())
 
-    private var questions: List<GameQuestion> = emptyList()
-    private var currentIndex = 0
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
+    private var currentQuestion: GameQuestion? = null
     private var correctAnswer: Int = 0
     private var startTime: Long = 0
 
@@ -66,15 +67,15 @@ class MentalCalculationFragment : BaseGameFragment() {
         return binding!!.root
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions = if (questions.isEmpty()) listOf(GameQuestion("1 + 2", 3)) else questions
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
         loadNextQuestion()
     }
 
     private fun onReadQuestionClicked() {
         if (isRevealing) return // Prevent re-entry
 
-        val question = questions.getOrNull(currentIndex) ?: return
+        val question = currentQuestion ?: return
         revealTokens = question.expression.split(" ")
         revealIndex = 0
         isRevealing = true
@@ -111,13 +112,11 @@ class MentalCalculationFragment : BaseGameFragment() {
     }
 
     private fun loadNextQuestion() {
-        if (currentIndex >= questions.size) {
-            endGame()
-            return
-        }
+        if (!questions.hasNext()) return
 
         attemptCount = 0
-        val question = questions[currentIndex]
+        val question = questions.next()
+        currentQuestion = question
         correctAnswer = question.answer
 
         binding?.apply {
@@ -132,7 +131,7 @@ class MentalCalculationFragment : BaseGameFragment() {
 
         if (AccessibilityUtils().isSystemExploreByTouchEnabled(requireContext())) {
             handler.postDelayed({
-                tts.speak("Solve ${TTSHelper.formatMathText(question.expression)}")
+                tts.speak("Solve ${TTSHelper.formatMathText(question.expression, lang)}")
             }, 500)
         }
 
@@ -147,6 +146,7 @@ class MentalCalculationFragment : BaseGameFragment() {
     }
 
     private fun checkAnswer() {
+        val question = currentQuestion ?: return
         val input = binding?.answerEt?.text.toString().trim()
         if (input.isEmpty()) {
             Toast.makeText(context, R.string.enter_answer, Toast.LENGTH_SHORT).show()
@@ -160,7 +160,7 @@ class MentalCalculationFragment : BaseGameFragment() {
         }
 
         val elapsedSec = (System.currentTimeMillis() - startTime) / 1000.0
-        val timeLimit = questions[currentIndex].timeLimit.toDouble()
+        val timeLimit = question.timeLimit.toDouble()
 
         handleAnswerSubmission(
             userAnswer = userAnswer.toString(),
@@ -168,10 +168,9 @@ class MentalCalculationFragment : BaseGameFragment() {
             elapsedTime = elapsedSec,
             timeLimit = timeLimit,
             onCorrect = {
-                if (questions[currentIndex].celebration) {
+                if (question.celebration) {
                     MediaPlayer.create(context, R.raw.bell_ring)?.start()
                 }
-                currentIndex++
                 loadNextQuestion()
             },
             onIncorrect = {
@@ -179,7 +178,6 @@ class MentalCalculationFragment : BaseGameFragment() {
                 binding?.answerEt?.requestFocus()
             },
             onShowCorrect = {
-                currentIndex++
                 loadNextQuestion()
             }
         )
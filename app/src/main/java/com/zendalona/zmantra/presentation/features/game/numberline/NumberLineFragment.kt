@@ -10,6 +10,7 @@ import android.view.accessibility.AccessibilityEvent
 import androidx.lifecycle.ViewModelProvider
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameNumberLineBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 
@@ -20,8 +21,7 @@ class NumberLineFragment : BaseGameFragment() {
 
     private val handler = Handler(Looper.getMainLooper())
 
-    private var questions: List<GameQuestion> = emptyList()
-    private var currentIndex = 0
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
     private var answer = 0
     private var questionDesc = ""
     private var questionStartTime: Long = 0
@@ -49,9 +49,8 @@ class NumberLineFragment : BaseGameFragment() {
         return binding!!.root
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions =
-            if (questions.isEmpty()) listOf(GameQuestion("Move to 3", 3)) else questions
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
         askNextQuestion()
     }
 
@@ -102,12 +101,9 @@ class NumberLineFragment : BaseGameFragment() {
     }
 
     private fun askNextQuestion() {
-        if (currentIndex >= questions.size) {
-            endGame()
-            return
-        }
+        if (!questions.hasNext()) return
 
-        val question = questions[currentIndex++]
+        val question = questions.next()
         questionDesc = question.expression
         answer = question.answer
         questionStartTime = System.currentTimeMillis()
@@ -6,6 +6,8 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.zendalona.zmantra.core.utility.common.AppLog;
+
 public class NumberLineViewModel extends ViewModel {
 
     private static final String TAG = "NumberLineViewModel";
@@ -19,7 +21,7 @@ public class NumberLineViewModel extends ViewModel {
     public LiveData<Integer> currentPosition = _currentPosition;
 
     public void reset() {
-        Log.d(TAG, "reset called. Setting start=-5, end=5, position=0");
+        if (AppLog.ENABLED) Log.d(TAG, "reset called. Setting start=-5, end=5, position=0");
         _lineStart.setValue(-5);
         _lineEnd.setValue(5);
         _currentPosition.setValue(0);
@@ -29,14 +31,14 @@ public class NumberLineViewModel extends ViewModel {
         Integer currentPositionValue = _currentPosition.getValue();
         Integer lineEndValue = _lineEnd.getValue();
 
-        Log.d(TAG, "moveRight called. Current position: " + currentPositionValue + ", line end: " + lineEndValue);
+        if (AppLog.ENABLED) Log.d(TAG, "moveRight called. Current position: " + currentPositionValue + ", line end: " + lineEndValue);
 
         if (currentPositionValue != null && lineEndValue != null) {
             if (currentPositionValue < lineEndValue) {
                 _currentPosition.setValue(currentPositionValue + 1);
-                Log.d(TAG, "Moved right to " + (currentPositionValue + 1));
+                if (AppLog.ENABLED) Log.d(TAG, "Moved right to " + (currentPositionValue + 1));
             } else {
-                Log.d(TAG, "At line end, shifting range right");
+                if (AppLog.ENABLED) Log.d(TAG, "At line end, shifting range right");
                 shiftRight();
             }
         }
@@ -46,14 +48,14 @@ public class NumberLineViewModel extends ViewModel {
         Integer currentPositionValue = _currentPosition.getValue();
         Integer lineStartValue = _lineStart.getValue();
 
-        Log.d(TAG, "moveLeft called. Current position: " + currentPositionValue + ", line start: " + lineStartValue);
+        if (AppLog.ENABLED) Log.d(TAG, "moveLeft called. Current position: " + currentPositionValue + ", line start: " + lineStartValue);
 
         if (currentPositionValue != null && lineStartValue != null) {
             if (currentPositionValue > lineStartValue) {
                 _currentPosition.setValue(currentPositionValue - 1);
-                Log.d(TAG, "Moved left to " + (currentPositionValue - 1));
+                if (AppLog.ENABLED) Log.d(TAG, "Moved left to " + (currentPositionValue - 1));
             } else {
-                Log.d(TAG, "At line start, shifting range left");
+                if (AppLog.ENABLED) Log.d(TAG, "At line start, shifting range left");
                 shiftLeft();
             }
         }
@@ -64,7 +66,7 @@ public class NumberLineViewModel extends ViewModel {
         if (lineEndValue != null) {
             int newStart = lineEndValue + 1;
             int newEnd = newStart + 10;
-            Log.d(TAG, "shiftRight: newStart=" + newStart + ", newEnd=" + newEnd);
+            if (AppLog.ENABLED) Log.d(TAG, "shiftRight: newStart=" + newStart + ", newEnd=" + newEnd);
             _lineStart.setValue(newStart);
             _lineEnd.setValue(newEnd);
             _currentPosition.setValue(newStart);
@@ -76,7 +78,7 @@ public class NumberLineViewModel extends ViewModel {
         if (lineStartValue != null) {
             int newEnd = lineStartValue - 1;
             int newStart = newEnd - 10;
-            Log.d(TAG, "shiftLeft: newStart=" + newStart + ", newEnd=" + newEnd);
+            if (AppLog.ENABLED) Log.d(TAG, "shiftLeft: newStart=" + newStart + ", newEnd=" + newEnd);
             _lineStart.setValue(newStart);
             _lineEnd.setValue(newEnd);
             _currentPosition.setValue(newEnd);
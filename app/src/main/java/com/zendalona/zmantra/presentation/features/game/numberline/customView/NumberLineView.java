@@ -14,6 +14,7 @@ import androidx.core.view.AccessibilityDelegateCompat;
 import androidx.core.view.ViewCompat;
 
 import com.zendalona.zmantra.R;
+import com.zendalona.zmantra.core.utility.common.AppLog;
 
 public class NumberLineView extends View {
 
@@ -45,7 +46,7 @@ public class NumberLineView extends View {
     }
 
     private void init(Context context) {
-        Log.d(TAG, "Initializing NumberLineView.");
+        if (AppLog.ENABLED) Log.d(TAG, "Initializing NumberLineView.");
 
         linePaint = new Paint();
         linePaint.setColor(ContextCompat.getColor(getContext(), R.color.blue));
@@ -107,7 +108,7 @@ public class NumberLineView extends View {
     }
 
     public void updateNumberLine(int start, int end, int position) {
-        Log.d(TAG, "Updating number line: start=" + start + ", end=" + end + ", position=" + position);
+        if (AppLog.ENABLED) Log.d(TAG, "Updating number line: start=" + start + ", end=" + end + ", position=" + position);
         this.numberRangeStart = start;
         this.numberRangeEnd = end;
         this.currentPosition = position;
@@ -12,7 +12,9 @@ import android.view.View
 import android.view.ViewGroup
 import android.widget.ImageView
 import com.zendalona.zmantra.R
+import com.zendalona.zmantra.core.Enum.SpeechPriority
 import com.zendalona.zmantra.core.base.BaseGameFragment
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameShakeBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 import kotlin.math.sqrt
@@ -25,7 +27,6 @@ class ShakeFragment : BaseGameFragment(), SensorEventListener {
     private lateinit var sensorManager: SensorManager
     private var accelerometer: Sensor? = null
 
-    private var index = 0
     private var count = 0
     private var wrongAttempts = 0
     private var answerChecked = false
@@ -36,7 +37,8 @@ class ShakeFragment : BaseGameFragment(), SensorEventListener {
     private val gameHandler = Handler(Looper.getMainLooper())
     private var isFirstQuestion = true // add this near other vars
 
-    private var parsedShakeList: List<GameQuestion> = emptyList()
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
+    private var currentQuestion: GameQuestion? = null
 
     override fun getModeName(): String = "shake"
     override fun getGifImageView(): ImageView? = binding?.animatedView
@@ -79,15 +81,16 @@ class ShakeFragment : BaseGameFragment(), SensorEventListener {
     }
 
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        parsedShakeList = questions
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
         startQuestion()
     }
 
     private fun startQuestion() {
-        if (parsedShakeList.isEmpty()) return
+        if (!questions.hasNext()) return
 
-        val question = parsedShakeList[index % parsedShakeList.size]
+        val question = questions.next()
+        currentQuestion = question
         count = 0
         wrongAttempts = 0
         answerChecked = false
@@ -108,19 +111,14 @@ class ShakeFragment : BaseGameFragment(), SensorEventListener {
     }
 
     private fun proceedToNextQuestion() {
-        index++
-        if (index >= parsedShakeList.size) {
-            endGame()
-        } else {
-            startQuestion()
-        }
+        startQuestion()
     }
 
     private fun checkAnswer(forceWrong: Boolean = false) {
         if (!isAdded || view == null || answerChecked) return
+        val question = currentQuestion ?: return
         answerChecked = true
 
-        val question = parsedShakeList[index % parsedShakeList.size]
         val userAnswer = if (forceWrong) "wrong" else count.toString()
         val correctAnswer = question.answer.toString()
 
@@ -177,17 +175,17 @@ class ShakeFragment : BaseGameFragment(), SensorEventListener {
 
     private fun onShakeDetected() {
         if (!isShakingAllowed) return
+        val question = currentQuestion ?: return
 
         isShakingAllowed = false
         shakeHandler.postDelayed({ isShakingAllowed = true }, 500)
 
         count++
         binding?.ringCount?.text = count.toString()
-        tts.stop()
+        // Cut off the question being read, but let answer feedback finish
+        tts.stop(SpeechPriority.QUESTION)
         announce(binding?.ringCount, count.toString())
 
-        val question = parsedShakeList[index % parsedShakeList.size]
-
         if (count > question.answer && !answerChecked) {
             checkAnswer(forceWrong = true)
             return
@@ -1,41 +1,46 @@
 package com.zendalona.zmantra.presentation.features.game.sterio
 
 import android.content.Context
-import android.media.AudioAttributes
 import android.media.AudioDeviceInfo
 import android.media.AudioManager
-import android.media.SoundPool
 import android.os.Build
 import android.os.Bundle
 import android.os.Handler
 import android.os.Looper
-import android.speech.tts.TextToSpeech
-import android.speech.tts.UtteranceProgressListener
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
 import android.view.inputmethod.InputMethodManager
 import android.widget.Toast
+import androidx.lifecycle.lifecycleScope
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
+import com.zendalona.zmantra.core.utility.audio.PcmClipCache
+import com.zendalona.zmantra.core.utility.audio.StereoMixer
+import com.zendalona.zmantra.core.utility.audio.StereoTrackPlayer
+import com.zendalona.zmantra.core.utility.common.MathVerbalizer
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameSteroBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
-import java.io.File
-import java.util.Locale
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
 
 class SterioFragment : BaseGameFragment() {
     private var binding: FragmentGameSteroBinding? = null
 
-    private var ttsSynthesizer: TextToSpeech? = null
-    private var soundPool: SoundPool? = null
-    private val soundMap = HashMap<String, Int>()
+    private val mainHandler = Handler(Looper.getMainLooper())
+    private var clipCache: PcmClipCache? = null
+    private val player = StereoTrackPlayer()
+    private var readJob: Job? = null
 
-    private var isTtsInitialized = false
-
-    private var questions: List<GameQuestion> = emptyList()
-    private var currentIndex = 0
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
+    // Drawn one question ahead, so its clips can be prefetched while the current one is answered
+    private var upcoming: GameQuestion? = null
     private var numA = 0
     private var numB = 0
+    private var operatorWord = ""
     private var correctAnswer = 0
     private var questionStartTime = 0L
 
@@ -67,65 +72,46 @@ class SterioFragment : BaseGameFragment() {
 
     override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
         super.onViewCreated(view, savedInstanceState)
-
-        ttsSynthesizer = TextToSpeech(requireContext()) { status ->
-            if (status == TextToSpeech.SUCCESS) {
-                isTtsInitialized = true
-                val currentLocale = Locale.getDefault()
-                val result = ttsSynthesizer?.setLanguage(currentLocale)
-                if (result == TextToSpeech.LANG_MISSING_DATA || result == TextToSpeech.LANG_NOT_SUPPORTED) {
-                    ttsSynthesizer?.language = Locale.ENGLISH
-                }
-
-                ttsSynthesizer?.setOnUtteranceProgressListener(object : UtteranceProgressListener() {
-                    override fun onStart(utteranceId: String?) {}
-                    override fun onDone(utteranceId: String?) {
-                        val parts = utteranceId?.split("_")
-                        if (parts != null && parts.size == 2) {
-                            val text = parts[0]
-                            val channel = parts[1]
-                            loadAndPlayAudio(text, channel)
-                        }
-                    }
-                    override fun onError(utteranceId: String?) {}
-                })
-            }
-        }
-
-        val audioAttributes = AudioAttributes.Builder()
-            .setUsage(AudioAttributes.USAGE_GAME)
-            .setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
-            .build()
-        soundPool = SoundPool.Builder()
-            .setMaxStreams(10)
-            .setAudioAttributes(audioAttributes)
-            .build()
+        clipCache = PcmClipCache(tts, tts.clipStore, viewLifecycleOwner.lifecycleScope)
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions = if (questions.isEmpty()) listOf(GameQuestion("5 - 2", 3)) else questions
-        currentIndex = 0
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
+        upcoming = null
         loadNextQuestion()
     }
 
+    private fun tokens(expression: String): List<String> {
+        val match = OPERATION.find(expression) ?: return emptyList()
+        // Same spellings as loadNextQuestion(), so the cache keys match
+        return listOf(
+            match.groupValues[1].toInt().toString(),
+            MathVerbalizer.verbalize(match.groupValues[2], lang),
+            match.groupValues[3].toInt().toString()
+        )
+    }
+
     private fun loadNextQuestion() {
-        if (currentIndex >= questions.size) {
-            endGame()
-            return
-        }
-        val question = questions[currentIndex++]
+        val question = upcoming ?: if (questions.hasNext()) questions.next() else return
+        upcoming = if (questions.hasNext()) questions.next() else null
         correctAnswer = question.answer
         questionStartTime = System.currentTimeMillis()
 
-        val match = Regex("""(\d+)\s*([-+*/])\s*(\d+)""").find(question.expression)
+        val match = OPERATION.find(question.expression)
         if (match != null && match.groupValues.size == 4) {
             numA = match.groupValues[1].toInt()
             numB = match.groupValues[3].toInt()
+            operatorWord = MathVerbalizer.verbalize(match.groupValues[2], lang)
         }
+        // Synthesize this question's clips while the "new question" announcement plays, and the
+        // next one's while this one is answered. Only these, so they are not queued behind
+        // tokens of questions still far off
+        clipCache?.prefetch(listOf(numA.toString(), operatorWord, numB.toString()))
+        upcoming?.let { clipCache?.prefetch(tokens(it.expression)) }
         binding?.answerEt?.setText("")
         announce(binding?.answerEt, getString(R.string.new_question_ready))
 
-        Handler(Looper.getMainLooper()).postDelayed({
+        mainHandler.postDelayed({
             binding?.readQuestionBtn?.requestFocus()
             readQuestionAloud()
         }, 500)
@@ -153,69 +139,41 @@ class SterioFragment : BaseGameFragment() {
     }
 
     private fun readQuestionAloud() {
-        if (isTtsInitialized && isHeadphoneConnected()) {
-            val opText = when(val match = Regex("""(\d+)\s*([-+*/])\s*(\d+)""").find(questions[currentIndex-1].expression)) {
-                null -> ""
-                else -> match.groupValues[2]
-            }
-
-            // The synthesized audio will be loaded and played by the listener's onDone() method
-            synthesizeText(numA.toString(), "left")
-
-            Handler(Looper.getMainLooper()).postDelayed({
-                synthesizeText(opText, "center")
-            }, 1500)
-
-            Handler(Looper.getMainLooper()).postDelayed({
-                synthesizeText(numB.toString(), "right")
-            }, 3000)
-
-        } else {
-            val fallbackText = getString(R.string.subtract_numbers, numA, numB)
-            ttsSynthesizer?.speak(fallbackText, TextToSpeech.QUEUE_FLUSH, null, "fallback")
+        val cache = clipCache
+        if (cache == null || !isHeadphoneConnected()) {
+            speakFallback()
+            return
         }
-    }
-
-    private fun synthesizeText(textToSpeak: String, channel: String) {
-        val utteranceId = "${textToSpeak}_$channel"
-        val file = File(requireContext().cacheDir, "$utteranceId.wav")
-        val params = Bundle()
-        ttsSynthesizer?.synthesizeToFile(textToSpeak, params, file, utteranceId)
-    }
-
-    private fun loadAndPlayAudio(text: String, channel: String) {
-        val file = File(requireContext().cacheDir, "${text}_$channel.wav")
-        if (!file.exists()) return
-
-        val soundId = soundPool?.load(file.absolutePath, 1)
 
-        if (soundId != null) {
-            soundMap[text] = soundId
-        }
+        readJob?.cancel()
+        readJob = viewLifecycleOwner.lifecycleScope.launch {
+            val left = cache.get(numA.toString())
+            val center = cache.get(operatorWord)
+            val right = cache.get(numB.toString())
+            if (left == null || center == null || right == null) {
+                speakFallback()
+                return@launch
+            }
 
-        soundPool?.setOnLoadCompleteListener { _, _, status ->
-            if (status == 0) {
-                val leftVolume = when (channel) {
-                    "right" -> 0.0f
-                    else -> 1.0f
-                }
-                val rightVolume = when (channel) {
-                    "left" -> 0.0f
-                    else -> 1.0f
-                }
-
-                soundPool?.play(
-                    soundId ?: return@setOnLoadCompleteListener,
-                    leftVolume,
-                    rightVolume,
-                    1,
-                    0,
-                    1.0f
+            // First number on the left, operator in the centre, second number on the right
+            val buffer = withContext(Dispatchers.Default) {
+                StereoMixer.mix(
+                    listOf(
+                        StereoMixer.Segment(left, StereoMixer.Pan.LEFT),
+                        StereoMixer.Segment(center, StereoMixer.Pan.CENTER),
+                        StereoMixer.Segment(right, StereoMixer.Pan.RIGHT)
+                    ),
+                    GAP_MS
                 )
             }
+            player.play(buffer)
         }
     }
 
+    private fun speakFallback() {
+        tts.speak(getString(R.string.subtract_numbers, numA, numB))
+    }
+
     private fun isHeadphoneConnected(): Boolean {
         val audioManager = requireContext().getSystemService(Context.AUDIO_SERVICE) as AudioManager
         return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
@@ -238,10 +196,17 @@ class SterioFragment : BaseGameFragment() {
 
     override fun onDestroyView() {
         super.onDestroyView()
-        ttsSynthesizer?.shutdown()
-        ttsSynthesizer = null
-        soundPool?.release()
-        soundPool = null
+        mainHandler.removeCallbacksAndMessages(null)
+        readJob = null
+        clipCache = null
+        player.stop()
         binding = null
     }
+
+    private companion object {
+        val OPERATION = Regex("""(\d+)\s*([-+*/])\s*(\d+)""")
+
+        // Pause between the left, centre and right clips
+        const val GAP_MS = 250
+    }
 }
\ No newline at end of file
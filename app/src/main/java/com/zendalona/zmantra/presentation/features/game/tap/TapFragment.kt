@@ -10,6 +10,7 @@ import android.view.ViewGroup
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityHelper
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameTapBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 
@@ -18,14 +19,14 @@ class TapFragment : BaseGameFragment() {
     private var binding: FragmentGameTapBinding? = null
     private val handler = Handler(Looper.getMainLooper())
 
-    private var questionIndex = 0
     private var tapCount = 0
     private var answerChecked = false
     private var isCheckingAnswer = false
     private var questionStartTime = 0L
     private var isFirstQuestion = true // add this near other vars
 
-    private var questions: List<GameQuestion> = emptyList()
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
+    private var currentQuestion: GameQuestion? = null
 
     override fun onCreateView(
         inflater: LayoutInflater,
@@ -61,18 +62,16 @@ class TapFragment : BaseGameFragment() {
     override fun getGifImageView() = binding?.animatedView
     override fun getGifResource(): Int? = R.drawable.game_touchthescreen
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questions = questions
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
         startQuestion()
     }
 
     private fun startQuestion() {
-        if (questionIndex >= questions.size) {
-            endGame()
-            return
-        }
+        if (!questions.hasNext()) return
 
-        val question = questions[questionIndex]
+        val question = questions.next()
+        currentQuestion = question
         tapCount = 0
         attemptCount = 0
         answerChecked = false
@@ -94,13 +93,13 @@ class TapFragment : BaseGameFragment() {
     }
 
     private fun onTap() {
-        if (answerChecked || questionIndex >= questions.size) return
+        val question = currentQuestion
+        if (answerChecked || question == null) return
 
         tapCount++
         binding?.tapCount?.text = tapCount.toString()
         announce(binding?.tapCount, tapCount.toString())
 
-        val question = questions[questionIndex]
         val correctAnswer = question.answer
 
         // If user exceeds the correct answer immediately → wrong attempt
@@ -124,7 +123,7 @@ class TapFragment : BaseGameFragment() {
     private fun processWrongAnswer() {
         isCheckingAnswer = false
         attemptCount++
-        val question = questions[questionIndex]
+        val question = currentQuestion ?: return
         val correctAnswer = question.answer
         val elapsedSeconds = (System.currentTimeMillis() - questionStartTime) / 1000.0
         val timeLimit = question.timeLimit.toString().toDoubleOrNull()?.takeIf { it > 0 } ?: 10.0
@@ -161,7 +160,7 @@ class TapFragment : BaseGameFragment() {
         if (!correctNow) return // only proceed if they reached exactly the correct count
 
         answerChecked = true
-        val question = questions[questionIndex]
+        val question = currentQuestion ?: return
         val correctAnswer = question.answer
         val elapsedSeconds = (System.currentTimeMillis() - questionStartTime) / 1000.0
         val timeLimit = question.timeLimit.toString().toDoubleOrNull()?.takeIf { it > 0 } ?: 10.0
@@ -178,7 +177,6 @@ class TapFragment : BaseGameFragment() {
     }
 
     private fun goToNextQuestion() {
-        questionIndex++
         handler.postDelayed({ startQuestion() }, 1200)
     }
 
@@ -12,17 +12,17 @@ import android.widget.ImageView
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
 import com.zendalona.zmantra.core.utility.accessibility.AccessibilityHelper
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentGameTouchScreenBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 
 class TouchScreenFragment : BaseGameFragment() {
 
     private var binding: FragmentGameTouchScreenBinding? = null
-    private var index = 0
     private var inputLocked = false
     private var questionStartTime = 0L
     private var correctAnswer = 0
-    private var questionList: List<GameQuestion> = emptyList()
+    private var questions: QuestionStream? = null
     override fun getGifImageView(): ImageView? = binding?.animatedView
     override fun getGifResource(): Int = R.drawable.game_touchthescreen
     private var isFirstQuestion = true
@@ -44,30 +44,24 @@ class TouchScreenFragment : BaseGameFragment() {
         loadGifIfDefined()
     }
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        this.questionList = questions
-        index = 0
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
         startGame()
     }
 
     private fun startGame() {
-        if (index >= questionList.size) {
-            tts.speak(getString(R.string.shake_game_over))
+        val stream = questions ?: return
+        // Skip questions below three fingers; a whole pass of them means the sheet has none
+        val question = generateSequence { stream.next() }.take(stream.rowCount).firstOrNull { it.answer >= 3 }
+        if (question == null) {
+            tts.speakFeedback(getString(R.string.shake_game_over))
             endGame()
             return
         }
 
         inputLocked = false
-        val question = questionList[index]
         correctAnswer = question.answer
 
-        // Skip invalid questions (only skip if below)
-        if (correctAnswer < 3) {
-            index++
-            startGame()
-            return
-        }
-
         questionStartTime = System.currentTimeMillis()
 
         // Take the expression exactly as stored in the question (no parsing)
@@ -149,7 +143,6 @@ class TouchScreenFragment : BaseGameFragment() {
         }
 
         showResultDialog(grade) {
-            index++
             startGame()
         }
     }
@@ -159,7 +152,6 @@ class TouchScreenFragment : BaseGameFragment() {
         if (attemptCount >= maxAttempts) {
             attemptCount = 0
             showCorrectAnswerDialog(correctAnswer.toString()) {
-                index++
                 startGame()
             }
         } else {
@@ -0,0 +1,120 @@
+package com.zendalona.zmantra.presentation.features.hint
+
+import android.content.Context
+import android.util.TypedValue
+import com.zendalona.zmantra.domain.repository.HintRepository
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.withContext
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Finished hint pages keyed by (language, mode, theme), so reopening a hint skips both the
+ * hint lookup and the HTML build.
+ *
+ * Theme colors are part of the key, so a page is never shown in stale colors; [invalidate]
+ * frees the old pages when the theme or language changes.
+ */
+@Singleton
+class HintHtmlCache @Inject constructor(
+    private val hintRepository: HintRepository
+) {
+
+    /** Colors a hint page is rendered with. */
+    data class HintTheme(val backgroundColor: String, val textColor: String) {
+        companion object {
+            fun from(context: Context) = HintTheme(
+                themeColor(context, com.google.android.material.R.attr.colorSecondary),
+                themeColor(context, com.google.android.material.R.attr.colorOnSecondary)
+            )
+
+            private fun themeColor(context: Context, attrRes: Int): String {
+                val typedValue = TypedValue()
+                context.theme.resolveAttribute(attrRes, typedValue, true)
+                return String.format("#%06X", 0xFFFFFF and typedValue.data)
+            }
+        }
+    }
+
+    private data class Key(val language: String, val mode: String, val theme: HintTheme)
+
+    private val pages = ConcurrentHashMap<Key, String>()
+
+    /** The page for [mode], rendering [fallback] when the language has no hint for it. */
+    suspend fun getHtml(language: String, mode: String, theme: HintTheme, fallback: String): String {
+        val key = Key(language, mode.trim().lowercase(Locale.ROOT), theme)
+        pages[key]?.let { return it }
+
+        val hint = hintRepository.getHint(language, mode)?.takeIf { it.isNotEmpty() } ?: fallback
+        return withContext(Dispatchers.Default) { render(hint, theme) }.also { pages[key] = it }
+    }
+
+    /** Renders every hint of [language] ahead of time, e.g. right after the splash screen. */
+    suspend fun warm(language: String, theme: HintTheme) {
+        val hints = hintRepository.getHints(language)
+        withContext(Dispatchers.Default) {
+            for ((mode, hint) in hints) {
+                pages.computeIfAbsent(Key(language, mode, theme)) { render(hint, theme) }
+            }
+        }
+    }
+
+    fun invalidate() {
+        pages.clear()
+    }
+
+    companion object {
+
+        // Convert hint text to HTML format
+        fun render(hintText: String, theme: HintTheme): String {
+            val lines = hintText.split("\n").filter { it.isNotEmpty() }
+
+            val htmlBuilder = StringBuilder(hintText.length * 2 + 512)
+            htmlBuilder.append(
+                """
+            <html>
+            <head>
+                <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
+                <style>
+                    body {
+                        background-color: ${theme.backgroundColor};
+                        color: ${theme.textColor};
+                        font-size: 18px;
+                        font-family: sans-serif;
+                        padding: 16px;
+                    }
+                    h2 { margin-top: 20px; }
+                    ul { padding-left: 20px; }
+                </style>
+            </head>
+            <body>
+            """.trimIndent()
+            )
+
+            lines.forEach { line ->
+                when {
+                    line.contains("Objective", ignoreCase = true) -> {
+                        htmlBuilder.append("<h2><strong>Objective of the Game</strong></h2>")
+                        htmlBuilder.append("<p>$line</p>")
+                    }
+                    line.contains("Tips", ignoreCase = true) -> {
+                        htmlBuilder.append("<h2><strong>Tips</strong></h2>")
+                        htmlBuilder.append("<ul><li>$line</li></ul>")
+                    }
+                    line.contains("Accessibility Features", ignoreCase = true) -> {
+                        htmlBuilder.append("<h2><strong>Accessibility Features</strong></h2>")
+                        htmlBuilder.append("<p>$line</p>")
+                    }
+                    else -> {
+                        htmlBuilder.append("<p>$line</p>")
+                    }
+                }
+            }
+
+            htmlBuilder.append("</body></html>")
+            return htmlBuilder.toString()
+        }
+    }
+}
@@ -12,6 +12,7 @@ import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.base.BaseGameFragment
 import com.zendalona.zmantra.core.utility.common.GradingUtils
 import com.zendalona.zmantra.core.utility.common.VibrationUtils
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
 import com.zendalona.zmantra.databinding.FragmentQuickPlayBinding
 import com.zendalona.zmantra.domain.model.GameQuestion
 import com.zendalona.zmantra.presentation.features.hint.HintFragment
@@ -21,7 +22,9 @@ class QuickPlayFragment : BaseGameFragment() {
     private var _binding: FragmentQuickPlayBinding? = null
     private val binding get() = _binding!!
 
-    private val questionList = mutableListOf<GameQuestion>()
+    // Endless stream from BaseGameFragment; a session ends after 7 wrong answers
+    private var questions: Iterator<GameQuestion> = emptyList<GameQuestion>().iterator()
+    private var currentQuestion: GameQuestion? = null
     private val wrongQuestionsSet = mutableSetOf<Int>()
     private var hasBoundQuestion = false
 
@@ -68,9 +71,8 @@ class QuickPlayFragment : BaseGameFragment() {
 
     override fun getModeName(): String = questionCategory ?: "default"
 
-    override fun onQuestionsLoaded(questions: List<GameQuestion>) {
-        questionList.clear()
-        questionList.addAll(questions)
+    override fun onQuestionStreamReady(stream: QuestionStream) {
+        questions = stream
         loadNextQuestion()
     }
     override fun onViewCreated(view: View, savedInstanceState: Bundle?) {
@@ -84,19 +86,20 @@ class QuickPlayFragment : BaseGameFragment() {
     }
 
     private fun loadNextQuestion() {
-        if (questionList.isEmpty() || currentIndex + 1 >= questionList.size) {
+        if (!questions.hasNext()) {
             endGame()
             return
         }
 
         currentIndex++
-        val gameQuestion = questionList[currentIndex]
+        val gameQuestion = questions.next()
+        currentQuestion = gameQuestion
         currentQuestionTimeLimit = gameQuestion.timeLimit
         startTime = System.currentTimeMillis()
 
         binding.questionTv.text = gameQuestion.expression
         binding.answerEt.text?.clear()
-        totalQuestions = questionList.size
+        totalQuestions = currentIndex + 1
 
         val questionText = gameQuestion.expression
         binding.questionTv.text = questionText
@@ -106,10 +109,10 @@ class QuickPlayFragment : BaseGameFragment() {
     }
 
     private fun checkAnswer() {
-        if (currentIndex >= questionList.size) return
+        val question = currentQuestion ?: return
 
         val userInput = binding.answerEt.text.toString()
-        val correctAnswer = questionList[currentIndex].answer
+        val correctAnswer = question.answer
         val elapsedSeconds = (System.currentTimeMillis() - startTime) / 1000.0
 
         handleAnswerSubmission(
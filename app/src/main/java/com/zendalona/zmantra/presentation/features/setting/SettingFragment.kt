@@ -17,14 +17,26 @@ import androidx.fragment.app.Fragment
 import com.google.android.material.appbar.MaterialToolbar
 import com.zendalona.zmantra.R
 import com.zendalona.zmantra.core.Enum.Difficulty
+import com.zendalona.zmantra.core.utility.common.SpeechEngine
 import com.zendalona.zmantra.core.utility.common.TTSUtility
+import com.zendalona.zmantra.presentation.features.hint.HintHtmlCache
 import com.zendalona.zmantra.presentation.features.setting.util.BackgroundMusicPlayer
 import com.zendalona.zmantra.presentation.features.setting.util.DifficultyPreferences
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper
 import com.zendalona.zmantra.databinding.FragmentSettingsBinding
+import dagger.hilt.android.AndroidEntryPoint
+import javax.inject.Inject
 
+@AndroidEntryPoint
 class SettingFragment : Fragment() {
 
+    // Hint pages are rendered per language and theme, so both settings drop them
+    @Inject
+    lateinit var hintHtmlCache: HintHtmlCache
+
+    @Inject
+    lateinit var speechEngine: SpeechEngine
+
     private var _binding: FragmentSettingsBinding? = null
     val binding get() = _binding!!
 
@@ -62,7 +74,7 @@ class SettingFragment : Fragment() {
         prefsEditor = prefs.edit()
 
         BackgroundMusicPlayer.initialize(requireContext())
-        ttsUtility = TTSUtility(requireContext())
+        ttsUtility = TTSUtility(speechEngine, requireContext())
 
         val toolbar = requireActivity().findViewById<MaterialToolbar>(R.id.toolbar)
         (requireActivity() as AppCompatActivity).setSupportActionBar(toolbar)
@@ -125,10 +137,12 @@ class SettingFragment : Fragment() {
                 if (selectedLangCode == "default") {
                     LocaleHelper.setLocale(requireContext(), null)
                     prefsEditor.remove("Locale.Helper.Selected.Language").apply()
+                    hintHtmlCache.invalidate()
                     requireActivity().recreate()
                 } else if (selectedLangCode != null && selectedLangCode != currentLang) {
                     LocaleHelper.setLocale(requireContext(), selectedLangCode)
                     prefsEditor.putString("Locale.Helper.Selected.Language", selectedLangCode).apply()
+                    hintHtmlCache.invalidate()
                     requireActivity().recreate()
                 }
             }
@@ -163,6 +177,7 @@ class SettingFragment : Fragment() {
                 else -> AppCompatDelegate.MODE_NIGHT_FOLLOW_SYSTEM
             }
             prefsEditor.putInt("app_contrast_mode", mode).apply()
+            hintHtmlCache.invalidate()
             AppCompatDelegate.setDefaultNightMode(mode)
             requireActivity().recreate()
         }
@@ -299,6 +314,7 @@ class SettingFragment : Fragment() {
             ttsUtility.setSpeechRate(1.0f)
 
             binding.contrastDefault.isChecked = true
+            hintHtmlCache.invalidate()
             AppCompatDelegate.setDefaultNightMode(AppCompatDelegate.MODE_NIGHT_FOLLOW_SYSTEM)
 
             binding.languageSpinner.setSelection(0)
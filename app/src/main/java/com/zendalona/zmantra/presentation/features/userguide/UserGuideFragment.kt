@@ -5,8 +5,10 @@ import android.util.TypedValue
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
+import android.webkit.WebView
 import androidx.fragment.app.Fragment
 import androidx.fragment.app.viewModels
+import com.zendalona.zmantra.core.utility.common.WebViewPool
 import com.zendalona.zmantra.databinding.FragmentUserguideBinding
 import com.zendalona.zmantra.domain.model.HintIconVisibilityController
 import com.zendalona.zmantra.presentation.features.setting.util.LocaleHelper
@@ -18,12 +20,29 @@ class UserGuideFragment : Fragment(), HintIconVisibilityController {
     override fun shouldShowHintIcon() = false
 
     private var binding: FragmentUserguideBinding? = null
+    private var webView: WebView? = null
+
+    // Page currently loaded, and how many later sections have been appended to it
+    private var loadedHtml: String? = null
+    private var pageLoaded = false
+    private var appendedSections = 0
+
     private val viewModel: UserGuideViewModel by viewModels()
 
     override fun onCreateView(
         inflater: LayoutInflater, container: ViewGroup?, savedInstanceState: Bundle?
     ): View {
         binding = FragmentUserguideBinding.inflate(inflater, container, false)
+
+        // Borrow the pre-warmed WebView instead of inflating a new one
+        webView = WebViewPool.acquire(requireContext()) {
+            pageLoaded = true
+            appendSections()
+        }.also {
+            // Only used to append the guide's own sections to the loaded page
+            it.settings.javaScriptEnabled = true
+            binding!!.webViewContainer.addView(it, ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT)
+        }
         return binding!!.root
     }
 
@@ -47,15 +66,30 @@ class UserGuideFragment : Fragment(), HintIconVisibilityController {
     private fun observeViewModel() {
         viewModel.uiState.observe(viewLifecycleOwner) { state ->
             if (state.isError) {
-                binding?.webView?.loadData("<p>Error loading guide</p>", "text/html", "UTF-8")
+                webView?.loadData("<p>Error loading guide</p>", "text/html", "UTF-8")
             } else {
                 state.styledHtml?.let {
-                    binding?.webView?.loadDataWithBaseURL(null, it, "text/html", "UTF-8", null)
+                    if (it !== loadedHtml) {
+                        loadedHtml = it
+                        pageLoaded = false
+                        appendedSections = 0
+                        webView?.loadDataWithBaseURL(null, it, "text/html", "UTF-8", null)
+                    }
+                    appendSections()
                 }
             }
         }
     }
 
+    private fun appendSections() {
+        if (!pageLoaded) return
+        val sections = viewModel.uiState.value?.moreSections ?: return
+        while (appendedSections < sections.size) {
+            webView?.evaluateJavascript(UserGuideHtmlTemplate.appendScript(sections[appendedSections]), null)
+            appendedSections++
+        }
+    }
+
     private fun getThemeColor(attrRes: Int): String {
         val typedValue = TypedValue()
         requireContext().theme.resolveAttribute(attrRes, typedValue, true)
@@ -65,6 +99,11 @@ class UserGuideFragment : Fragment(), HintIconVisibilityController {
 
     override fun onDestroyView() {
         super.onDestroyView()
+        webView?.let(WebViewPool::release)
+        webView = null
+        loadedHtml = null
+        pageLoaded = false
+        appendedSections = 0
         binding = null
     }
 }
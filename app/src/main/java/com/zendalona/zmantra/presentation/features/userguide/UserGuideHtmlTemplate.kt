@@ -0,0 +1,61 @@
+package com.zendalona.zmantra.presentation.features.userguide
+
+/**
+ * Themed page shell for the user guide.
+ *
+ * The shell is split once around its placeholders, so rendering is a single presized append
+ * of the literal parts, the theme colors and the body, without any string templating per load.
+ */
+object UserGuideHtmlTemplate {
+
+    private val parts = """
+        <html>
+        <head>
+            <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
+            <style>
+                body {
+                    background-color: {{background}};
+                    color: {{text}};
+                    font-size: 18px;
+                    font-family: sans-serif;
+                    padding: 16px;
+                }
+                h2 { margin-top: 20px; }
+                a { color: #64B5F6; }
+            </style>
+        </head>
+        <body>
+            {{body}}
+        </body>
+        </html>
+    """.trimIndent().split("{{background}}", "{{text}}", "{{body}}")
+
+    private val literalLength = parts.sumOf { it.length }
+
+    fun render(body: String, backgroundColor: String, textColor: String): String {
+        return StringBuilder(literalLength + backgroundColor.length + textColor.length + body.length)
+            .append(parts[0]).append(backgroundColor)
+            .append(parts[1]).append(textColor)
+            .append(parts[2]).append(body)
+            .append(parts[3])
+            .toString()
+    }
+
+    /** Script that appends a later [section] to the loaded page's body. */
+    fun appendScript(section: String): String {
+        val quoted = StringBuilder(section.length + 64).append('\'')
+        for (c in section) {
+            when (c) {
+                '\\' -> quoted.append("\\\\")
+                '\'' -> quoted.append("\\'")
+                '\n' -> quoted.append("\\n")
+                '\r' -> quoted.append("\\r")
+                '\u2028' -> quoted.append("\\u2028")
+                '\u2029' -> quoted.append("\\u2029")
+                else -> quoted.append(c)
+            }
+        }
+        quoted.append('\'')
+        return "document.body.insertAdjacentHTML('beforeend', $quoted);"
+    }
+}
@@ -2,5 +2,7 @@ package com.zendalona.zmantra.presentation.features.userguide
 
 data class UserGuideUiState(
     val styledHtml: String? = null,
+    // Sections read after styledHtml was built, appended to the page in order
+    val moreSections: List<String> = emptyList(),
     val isError: Boolean = false
 )
@@ -20,37 +20,22 @@ class UserGuideViewModel @Inject constructor(
     fun loadUserGuide(language: String, themeColors: Pair<String, String>) {
         viewModelScope.launch {
             try {
-                val html = getUserGuideHtmlUseCase(language)
-                val styledHtml = applyThemeToHtml(html, themeColors)
-                _uiState.value = UserGuideUiState(styledHtml = styledHtml)
+                val (backgroundColor, textColor) = themeColors
+                var styledHtml: String? = null
+                val moreSections = mutableListOf<String>()
+
+                // The first section becomes the page; later ones are appended as they are read
+                getUserGuideHtmlUseCase.sections(language).collect { section ->
+                    if (styledHtml == null) {
+                        styledHtml = UserGuideHtmlTemplate.render(section, backgroundColor, textColor)
+                    } else {
+                        moreSections.add(section)
+                    }
+                    _uiState.value = UserGuideUiState(styledHtml = styledHtml, moreSections = moreSections.toList())
+                }
             } catch (e: Exception) {
                 _uiState.value = UserGuideUiState(isError = true)
             }
         }
     }
-
-    private fun applyThemeToHtml(htmlBody: String, themeColors: Pair<String, String>): String {
-        val (backgroundColor, textColor) = themeColors
-        return """
-            <html>
-            <head>
-                <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
-                <style>
-                    body {
-                        background-color: $backgroundColor;
-                        color: $textColor;
-                        font-size: 18px;
-                        font-family: sans-serif;
-                        padding: 16px;
-                    }
-                    h2 { margin-top: 20px; }
-                    a { color: #64B5F6; }
-                </style>
-            </head>
-            <body>
-                $htmlBody
-            </body>
-            </html>
-        """.trimIndent()
-    }
 }
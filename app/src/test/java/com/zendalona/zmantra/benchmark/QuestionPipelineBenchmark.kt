@@ -0,0 +1,143 @@
+package com.zendalona.zmantra.benchmark
+
+import com.zendalona.zmantra.core.utility.excel.CompiledTemplate
+import com.zendalona.zmantra.core.utility.excel.ExcelQuestionLoader
+import com.zendalona.zmantra.core.utility.excel.QuestionBank
+import com.zendalona.zmantra.core.utility.excel.QuestionCache
+import com.zendalona.zmantra.core.utility.excel.QuestionRow
+import com.zendalona.zmantra.core.utility.excel.QuestionRowIndex
+import com.zendalona.zmantra.core.utility.excel.QuestionStream
+import com.zendalona.zmantra.core.utility.excel.StreamingSheetReader
+import kotlinx.coroutines.runBlocking
+import org.apache.poi.openxml4j.opc.OPCPackage
+import org.apache.poi.xssf.eventusermodel.XSSFReader
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.nio.ByteBuffer
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+
+/**
+ * Startup-path benchmarks for every bundled question sheet, run with `./gradlew :app:jmh`.
+ *
+ * Sheets are read into memory in [setUp], so the numbers cover parsing and rendering only, not
+ * disk I/O. The `jmh` task adds the GC profiler, which reports `gc.alloc.rate.norm` (bytes/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class QuestionPipelineBenchmark {
+
+    @Param("ar", "en", "hi", "ml", "sa", "ta")
+    lateinit var lang: String
+
+    private lateinit var sheet: ByteArray
+    private lateinit var bank: ByteArray
+    private lateinit var rows: List<QuestionRow>
+    private lateinit var index: QuestionRowIndex
+    private lateinit var numeric: List<CompiledTemplate>
+    private lateinit var numbers: List<IntArray>
+
+    @Setup
+    fun setUp() {
+        sheet = File("src/main/assets/questions/$lang.xlsx").readBytes()
+        rows = ExcelQuestionLoader.readRows(sheet.inputStream())
+        index = QuestionRowIndex.build(rows)
+        bank = ByteArrayOutputStream().also { QuestionBank.write(rows, it) }.toByteArray()
+
+        val random = Random(42)
+        numeric = rows.filter { it.mode !in WORD_MODES }.mapNotNull { it.compiled }
+        numbers = numeric.map { it.nextNumbers(random) }
+    }
+
+    /** POI package open plus [XSSFReader] setup, before any sheet XML is parsed. */
+    @Benchmark
+    fun workbookOpen(): Int = OPCPackage.open(sheet.inputStream()).use { pkg ->
+        XSSFReader(pkg).sheetsData.hasNext().hashCode()
+    }
+
+    /** Event-driven scan of every cell of the first sheet. */
+    @Benchmark
+    fun sheetScan(): Int {
+        var cells = 0
+        StreamingSheetReader.read(sheet.inputStream()) { _, row ->
+            cells += row.size
+            true
+        }
+        return cells
+    }
+
+    /** Sheet scan plus row validation, i.e. what a cold start without a cached bank pays. */
+    @Benchmark
+    fun readRows(): List<QuestionRow> = ExcelQuestionLoader.readRows(sheet.inputStream())
+
+    /** Reading the compact bank that replaces [readRows] on warm starts. */
+    @Benchmark
+    fun bankRead(): QuestionBank = QuestionBank.read(ByteBuffer.wrap(bank))
+
+    /** One round of questions per mode at difficulty 1, as a game screen draws them from its stream. */
+    @Benchmark
+    fun loadQuestionsPerMode(): Int = index.modes.sumOf { mode ->
+        val stream = QuestionStream.of(index.rows(mode, "1"))
+        stream.take(stream.rowCount).size
+    }
+
+    /** Answers through each row's precompiled exp4j expression. */
+    @Benchmark
+    fun evaluateCompiled(): Int {
+        var sum = 0
+        for (i in numeric.indices) {
+            val values = Array(numbers[i].size) { numbers[i][it].toString() }
+            sum += numeric[i].evaluateAnswer(numbers[i], values)
+        }
+        return sum
+    }
+
+    /** Answers by rendering the text and building a fresh exp4j expression each time. */
+    @Benchmark
+    fun evaluateRebuilt(): Int {
+        var sum = 0
+        for (i in numeric.indices) {
+            val values = Array(numbers[i].size) { numbers[i][it].toString() }
+            sum += ExcelQuestionLoader.evaluateEquation(numeric[i].renderAnswer(values))
+        }
+        return sum
+    }
+
+    /**
+     * A cold start without a cached bank: scan and index the sheet once through
+     * [QuestionCache.openStream], then open every mode's stream at every difficulty.
+     */
+    @Benchmark
+    fun coldOpenStreams(): Int = runBlocking {
+        QuestionCache.clearCache()
+        var rowCount = 0
+        for (difficulty in DIFFICULTIES) {
+            for (mode in index.modes) {
+                rowCount += QuestionCache.openStream(lang, mode, difficulty) {
+                    QuestionRowIndex.build(ExcelQuestionLoader.readRows(sheet.inputStream()))
+                }.rowCount
+            }
+        }
+        rowCount
+    }
+
+    private companion object {
+        val WORD_MODES = setOf("direction", "drawing")
+        val DIFFICULTIES = listOf("1", "2", "3", "4", "5")
+    }
+}
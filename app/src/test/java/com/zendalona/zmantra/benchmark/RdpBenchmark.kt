@@ -0,0 +1,124 @@
+package com.zendalona.zmantra.benchmark
+
+import com.zendalona.zmantra.presentation.features.game.drawing.util.RDP
+import com.zendalona.zmantra.presentation.features.game.drawing.util.StreamingRdp
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.BitSet
+import java.util.concurrent.TimeUnit
+import kotlin.math.cos
+import kotlin.math.hypot
+import kotlin.math.sin
+import kotlin.random.Random
+
+/**
+ * Stroke simplification on 10k-point strokes, run with `./gradlew :app:jmh -Pjmh.include=Rdp`:
+ * - recursive: the previous list-based RDP, kept here as the baseline
+ * - packed: [RDP.simplify] over a packed coordinate array
+ * - streaming: [StreamingRdp] fed one point at a time
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+open class RdpBenchmark {
+
+    @Param("10000")
+    var points = 0
+
+    @Param("2.0")
+    var epsilon = 0f
+
+    private lateinit var coords: FloatArray
+    private lateinit var list: List<FloatArray>
+    private val kept = BitSet()
+    private lateinit var streaming: StreamingRdp
+
+    @Setup
+    fun setUp() {
+        // A hand-drawn square: four sides traced with jitter
+        val random = Random(5)
+        coords = FloatArray(points * 2)
+        for (i in 0 until points) {
+            val t = i.toFloat() / points * 4
+            val side = t.toInt().coerceAtMost(3)
+            val f = t - side
+            val (x, y) = when (side) {
+                0 -> f to 0f
+                1 -> 1f to f
+                2 -> 1 - f to 1f
+                else -> 0f to 1 - f
+            }
+            val angle = random.nextFloat() * 6.2832f
+            val jitter = random.nextFloat() * 1.5f
+            coords[i * 2] = x * 500 + jitter * cos(angle)
+            coords[i * 2 + 1] = y * 500 + jitter * sin(angle)
+        }
+        list = List(points) { floatArrayOf(coords[it * 2], coords[it * 2 + 1]) }
+        streaming = StreamingRdp(epsilon)
+
+        // Both RDP versions must agree before timing them
+        check(recursive(list, epsilon).size == RDP.simplify(coords, 0, points, epsilon, BitSet()))
+    }
+
+    @Benchmark
+    fun recursive(): Int = recursive(list, epsilon).size
+
+    @Benchmark
+    fun packed(): Int {
+        kept.clear()
+        return RDP.simplify(coords, 0, points, epsilon, kept)
+    }
+
+    @Benchmark
+    fun streaming(): Int {
+        streaming.clear()
+        for (i in 0 until points) streaming.add(coords[i * 2], coords[i * 2 + 1])
+        streaming.finishStroke()
+        return streaming.simplified().pointCount()
+    }
+
+    private fun recursive(points: List<FloatArray>, epsilon: Float): List<FloatArray> {
+        if (points.size < 3) return points
+        var index = -1
+        var maxDist = 0f
+        val start = points[0]
+        val end = points[points.size - 1]
+        for (i in 1 until points.size - 1) {
+            val dist = perpendicularDistance(points[i], start, end)
+            if (dist > maxDist) {
+                index = i
+                maxDist = dist
+            }
+        }
+        return if (maxDist > epsilon) {
+            val left = recursive(points.subList(0, index + 1), epsilon)
+            val right = recursive(points.subList(index, points.size), epsilon)
+            ArrayList(left).apply { addAll(right.subList(1, right.size)) }
+        } else {
+            arrayListOf(start, end)
+        }
+    }
+
+    private fun perpendicularDistance(p: FloatArray, start: FloatArray, end: FloatArray): Float {
+        val dx = end[0] - start[0]
+        val dy = end[1] - start[1]
+        val mag = hypot(dx, dy)
+        if (mag == 0f) return hypot(p[0] - start[0], p[1] - start[1])
+        val u = ((p[0] - start[0]) * dx + (p[1] - start[1]) * dy) / (mag * mag)
+        val ix = start[0] + u * dx
+        val iy = start[1] + u * dy
+        return hypot(p[0] - ix, p[1] - iy)
+    }
+}
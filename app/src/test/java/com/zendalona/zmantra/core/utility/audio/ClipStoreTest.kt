@@ -0,0 +1,26 @@
+package com.zendalona.zmantra.core.utility.audio
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.Locale
+
+class ClipStoreTest {
+
+    private val key = ClipStore.Key(Locale("ml"), "com.google.android.tts/ml-in-x-mlf-local", 1.0f, "42")
+
+    @Test
+    fun fileNameIsStable() {
+        assertEquals(key.fileName, key.copy().fileName)
+        assertTrue(key.fileName.matches(Regex("[0-9a-f]{24}\\.wav")))
+    }
+
+    @Test
+    fun fileNameChangesWithEveryKeyPart() {
+        assertNotEquals(key.fileName, key.copy(locale = Locale("hi")).fileName)
+        assertNotEquals(key.fileName, key.copy(voice = "unknown").fileName)
+        assertNotEquals(key.fileName, key.copy(rate = 1.5f).fileName)
+        assertNotEquals(key.fileName, key.copy(token = "43").fileName)
+    }
+}
@@ -0,0 +1,80 @@
+package com.zendalona.zmantra.core.utility.audio
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+
+class StereoMixerTest {
+
+    private fun wav(samples: ShortArray, sampleRate: Int, channels: Int = 1, bits: Int = 16): ByteArray {
+        val data = ByteBuffer.allocate(samples.size * 2).order(ByteOrder.LITTLE_ENDIAN)
+        samples.forEach { data.putShort(it) }
+        val header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".toByteArray()).putInt(36 + samples.size * 2).put("WAVE".toByteArray())
+            .put("fmt ".toByteArray()).putInt(16).putShort(1).putShort(channels.toShort())
+            .putInt(sampleRate).putInt(sampleRate * channels * 2).putShort((channels * 2).toShort())
+            .putShort(bits.toShort())
+            .put("data".toByteArray()).putInt(samples.size * 2)
+        return ByteArrayOutputStream().apply {
+            write(header.array())
+            write(data.array())
+        }.toByteArray()
+    }
+
+    @Test
+    fun decodesMonoWav() {
+        val clip = PcmClip.fromWav(wav(shortArrayOf(1, -2, 3), 16000))!!
+        assertArrayEquals(shortArrayOf(1, -2, 3), clip.samples)
+        assertEquals(16000, clip.sampleRate)
+    }
+
+    @Test
+    fun downmixesStereoWav() {
+        val clip = PcmClip.fromWav(wav(shortArrayOf(10, 20, -4, 0), 8000, channels = 2))!!
+        assertArrayEquals(shortArrayOf(15, -2), clip.samples)
+    }
+
+    @Test
+    fun rejectsNonPcmInput() {
+        assertNull(PcmClip.fromWav(ByteArray(44)))
+        assertNull(PcmClip.fromWav(wav(shortArrayOf(1, 2), 8000, bits = 8)))
+    }
+
+    @Test
+    fun pansSegmentsWithExactGaps() {
+        val a = PcmClip(shortArrayOf(100, 100), 1000)
+        val b = PcmClip(shortArrayOf(50), 1000)
+        val buffer = StereoMixer.mix(
+            listOf(
+                StereoMixer.Segment(a, StereoMixer.Pan.LEFT),
+                StereoMixer.Segment(b, StereoMixer.Pan.CENTER),
+                StereoMixer.Segment(a, StereoMixer.Pan.RIGHT)
+            ),
+            gapMs = 2
+        )
+
+        // 2 + gap 2 + 1 + gap 2 + 2 frames, interleaved L/R
+        assertEquals(9, buffer.frames)
+        assertArrayEquals(
+            shortArrayOf(
+                100, 0, 100, 0,
+                0, 0, 0, 0,
+                50, 50,
+                0, 0, 0, 0,
+                0, 100, 0, 100
+            ),
+            buffer.samples
+        )
+    }
+
+    @Test
+    fun resamplesToFirstClipRate() {
+        val slow = PcmClip(shortArrayOf(0, 100), 1000)
+        assertEquals(4, StereoMixer.resample(slow, 2000).size)
+        assertArrayEquals(shortArrayOf(0, 100), StereoMixer.resample(slow, 1000))
+    }
+}
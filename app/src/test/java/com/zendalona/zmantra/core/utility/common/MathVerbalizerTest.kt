@@ -0,0 +1,59 @@
+package com.zendalona.zmantra.core.utility.common
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class MathVerbalizerTest {
+
+    @Test
+    fun readsBinaryOperators() {
+        assertEquals("3 plus 4", MathVerbalizer.verbalize("3+4"))
+        assertEquals(
+            "12 multiplied by 3 divided by 4 minus 1",
+            MathVerbalizer.verbalize("12 * 3 / 4 - 1")
+        )
+    }
+
+    @Test
+    fun distinguishesNegativeNumbersFromSubtraction() {
+        assertEquals("negative 5 minus negative 2", MathVerbalizer.verbalize("-5 - -2"))
+        assertEquals("7 minus 3", MathVerbalizer.verbalize("7-3"))
+        assertEquals(
+            "open bracket negative 1 close bracket minus 2",
+            MathVerbalizer.verbalize("(-1)-2")
+        )
+    }
+
+    @Test
+    fun readsDecimalsDigitByDigit() {
+        assertEquals("3 point 2 5 multiplied by 2", MathVerbalizer.verbalize("3.25*2"))
+        assertEquals("point 5 plus 1", MathVerbalizer.verbalize(".5+1"))
+    }
+
+    @Test
+    fun separatesDigitGroupsFromLists() {
+        assertEquals("1000 plus 2", MathVerbalizer.verbalize("1,000 + 2"))
+        assertEquals("1 and 2 and 3", MathVerbalizer.verbalize("1,2,3"))
+    }
+
+    @Test
+    fun keepsSurroundingText() {
+        assertEquals("What is 3 plus 4?", MathVerbalizer.verbalize("What is 3 + 4?"))
+        assertEquals("What is negative 3 plus 4?", MathVerbalizer.verbalize("What is -3 + 4?"))
+    }
+
+    @Test
+    fun usesLanguageLexicon() {
+        assertEquals("3 പ്ലസ് 4", MathVerbalizer.verbalize("3+4", "ml"))
+        assertEquals("3 जमा 4", MathVerbalizer.verbalize("3+4", "hi"))
+        assertEquals("3 plus 4", MathVerbalizer.verbalize("3+4", "xx"))
+    }
+
+    @Test
+    fun cachesResults() {
+        val first = MathVerbalizer.verbalize("(10 / 100) * 50")
+        assertSame(first, MathVerbalizer.verbalize("(10 / 100) * 50"))
+        assertEquals("open bracket 10 divided by 100 close bracket multiplied by 50", first)
+    }
+}
@@ -0,0 +1,41 @@
+package com.zendalona.zmantra.core.utility.common
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Test
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.Locale
+
+class SpeechClipCacheTest {
+
+    private fun header(byteRate: Int): ByteArray {
+        val buffer = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN)
+        buffer.put("RIFF".toByteArray())
+        buffer.position(28)
+        buffer.putInt(byteRate)
+        return buffer.array()
+    }
+
+    @Test
+    fun durationFollowsByteRate() {
+        // 16-bit mono at 22050 Hz: one second of audio is 44100 bytes
+        assertEquals(1000L, SpeechClipCache.durationMs(header(44100), 44L + 44100))
+        assertEquals(500L, SpeechClipCache.durationMs(header(44100), 44L + 22050))
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun rejectsNonWavFiles() {
+        SpeechClipCache.durationMs(ByteArray(44), 1000)
+    }
+
+    @Test
+    fun keysSeparateLocaleVoiceAndRate() {
+        val voice = "com.google.android.tts/en-in-x-ene-local"
+        val english = SpeechClipCache.key(Locale("en", "IN"), voice, 1.0f, "42")
+        assertEquals(english, SpeechClipCache.key(Locale("en", "IN"), voice, 1.0f, "42"))
+        assertNotEquals(english, SpeechClipCache.key(Locale("ml"), voice, 1.0f, "42"))
+        assertNotEquals(english, SpeechClipCache.key(Locale("en", "IN"), "com.google.android.tts/en-in-x-end-local", 1.0f, "42"))
+        assertNotEquals(english, SpeechClipCache.key(Locale("en", "IN"), voice, 0.8f, "42"))
+    }
+}
@@ -0,0 +1,106 @@
+package com.zendalona.zmantra.core.utility.common
+
+import com.zendalona.zmantra.core.Enum.SpeechPriority
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.util.Locale
+
+class SpeechSchedulerTest {
+
+    private val started = mutableListOf<String>()
+    private var halts = 0
+    private val results = mutableMapOf<String, Boolean>()
+    private lateinit var scheduler: SpeechScheduler
+
+    @Before
+    fun setUp() {
+        scheduler = SpeechScheduler(object : SpeechScheduler.Output {
+            override fun start(request: SpeechRequest) {
+                started.add(request.text)
+            }
+
+            override fun halt() {
+                halts++
+            }
+        })
+    }
+
+    private fun request(
+        text: String,
+        priority: SpeechPriority,
+        key: String? = null,
+        owner: Any = this
+    ) = SpeechRequest(owner, text, Locale.ENGLISH, 1.0f, priority, key) { success ->
+        results[text] = success
+    }
+
+    @Test
+    fun higherPriorityInterruptsLowerPriorityWaits() {
+        val question = request("question", SpeechPriority.QUESTION)
+        scheduler.submit(question)
+        val feedback = request("feedback", SpeechPriority.FEEDBACK)
+        scheduler.submit(feedback)
+        scheduler.submit(request("ambient", SpeechPriority.AMBIENT))
+
+        assertEquals(listOf("question", "feedback"), started)
+        assertEquals(false, results["question"])
+
+        scheduler.onFinished(feedback, true)
+        assertEquals(listOf("question", "feedback", "ambient"), started)
+        assertEquals(true, results["feedback"])
+    }
+
+    @Test
+    fun sameKeySupersedesPlayingAndQueuedRequests() {
+        scheduler.submit(request("feedback", SpeechPriority.FEEDBACK))
+        scheduler.submit(request("count 1", SpeechPriority.QUESTION, key = "count"))
+        scheduler.submit(request("count 2", SpeechPriority.QUESTION, key = "count"))
+
+        // Only the newest count is still waiting behind the feedback
+        assertEquals(false, results["count 1"])
+        assertEquals(listOf("feedback"), started)
+
+        scheduler.submit(request("feedback again", SpeechPriority.FEEDBACK, key = "count"))
+        assertEquals(false, results["count 2"])
+    }
+
+    @Test
+    fun onlyOneAmbientRequestWaits() {
+        scheduler.submit(request("question", SpeechPriority.QUESTION))
+        scheduler.submit(request("ambient 1", SpeechPriority.AMBIENT))
+        scheduler.submit(request("ambient 2", SpeechPriority.AMBIENT))
+
+        assertEquals(false, results["ambient 1"])
+        assertFalse(results.containsKey("ambient 2"))
+    }
+
+    @Test
+    fun lateFinishOfSupersededRequestIsIgnored() {
+        val first = request("first", SpeechPriority.QUESTION, key = "q")
+        scheduler.submit(first)
+        val second = request("second", SpeechPriority.QUESTION, key = "q")
+        scheduler.submit(second)
+
+        // The engine reports the flushed utterance as stopped after the fact
+        scheduler.onFinished(first, false)
+        assertTrue(scheduler.isCurrent(second))
+    }
+
+    @Test
+    fun cancelStopsOnlyMatchingOwner() {
+        val other = Any()
+        scheduler.submit(request("mine", SpeechPriority.QUESTION))
+        scheduler.submit(request("theirs", SpeechPriority.AMBIENT, owner = other))
+
+        scheduler.cancel { it.owner === this }
+        assertEquals(listOf("mine", "theirs"), started)
+        assertEquals(0, halts)
+
+        scheduler.cancel { true }
+        assertEquals(1, halts)
+        assertEquals(false, results["theirs"])
+    }
+}
@@ -0,0 +1,82 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import net.objecthunter.exp4j.ExpressionBuilder
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+import kotlin.random.Random
+
+class CompiledTemplateTest {
+
+    private fun compile(template: String, operands: String, answer: String, mode: String = "tap") =
+        CompiledTemplate.compile(QuestionRow(template, mode, operands, "1", answer))
+
+    @Test
+    fun `fills every placeholder and evaluates the answer`() {
+        val compiled = compile("{a} + {b} = ? ({a})", "a3*b4*", "{a}+{b}")!!
+
+        val question = compiled.instantiate()
+
+        assertEquals("3 + 4 = ? (3)", question.expression)
+        assertEquals(7, question.answer)
+    }
+
+    @Test
+    fun `ranges choices and products stay within their spec`() {
+        val compiled = compile("{a} {b} {c}", "a2:5*b1,3,9*c2;3*", "{a}")!!
+        val random = Random(42)
+
+        repeat(200) {
+            val (a, b, c) = compiled.instantiate(random).expression.split(" ").map { it.toInt() }
+            assertTrue(a in 2..5)
+            assertTrue(b in listOf(1, 3, 9))
+            assertEquals(6, c)
+        }
+    }
+
+    @Test
+    fun `word modes pick words and skip evaluation`() {
+        val compiled = compile("Draw a {s}", "sCircle, Square*", "{s}", mode = "drawing")!!
+
+        val question = compiled.instantiate()
+
+        assertTrue(question.expression == "Draw a Circle" || question.expression == "Draw a Square")
+        assertEquals(0, question.answer)
+    }
+
+    @Test
+    fun `unknown placeholders are left untouched`() {
+        val compiled = compile("{a} and {z}", "a1*", "{a}")!!
+
+        assertEquals("1 and {z}", compiled.instantiate().expression)
+    }
+
+    @Test
+    fun `mismatched operand spec is rejected`() {
+        assertNull(compile("{a}", "a1*5", "{a}"))
+    }
+
+    @Test
+    fun `compiled answers match rebuilding the rendered expression for every bundled row`() {
+        val random = Random(7)
+        val rows = File("src/main/assets/questions/en.xlsx").inputStream().use(ExcelQuestionLoader::readRows)
+            .filter { it.mode != "direction" && it.mode != "drawing" }
+        assertTrue(rows.isNotEmpty())
+
+        for (row in rows) {
+            val compiled = row.compiled ?: continue
+            val numbers = compiled.nextNumbers(random)
+            val values = Array(numbers.size) { numbers[it].toString() }
+            val text = compiled.renderAnswer(values)
+            val rebuilt = try {
+                ExpressionBuilder(text).build().evaluate().toInt()
+            } catch (e: Exception) {
+                0
+            }
+
+            assertEquals(text, rebuilt, compiled.evaluateAnswer(numbers, values))
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+
+class QuestionBankTest {
+
+    private fun row(mode: String, difficulty: String, template: String) =
+        QuestionRow(template, mode, "a1:5*", difficulty, "{a}", 15)
+
+    @Test
+    fun `written bank reads back grouped by mode and difficulty`() {
+        val rows = listOf(
+            row("add", "2", "add two"),
+            row("sub", "1", "sub one"),
+            row("add", "1", "add one"),
+            row("add", "2", "add two again"),
+            row("", "1", "no mode")
+        )
+
+        val bytes = ByteArrayOutputStream().also { QuestionBank.write(rows, it) }.toByteArray()
+        val bank = QuestionBank.read(ByteBuffer.wrap(bytes))
+
+        assertEquals(setOf("add", "sub"), bank.modes)
+        assertEquals(4, bank.rowCount)
+        assertEquals(listOf(rows[0], rows[3]), bank.rows("add", "2"))
+        assertEquals(listOf(rows[2]), bank.rows("add", "1"))
+        assertEquals(listOf(rows[1]), bank.rows("sub", "1"))
+        assertTrue(bank.rows("sub", "2").isEmpty())
+    }
+
+    @Test
+    fun `non ascii text survives the string table`() {
+        val rows = listOf(row("add", "1", "{a} + ൫ = ? 😀"))
+
+        val bytes = ByteArrayOutputStream().also { QuestionBank.write(rows, it) }.toByteArray()
+
+        assertEquals(rows, QuestionBank.read(bytes.inputStream()).rows("add", "1"))
+    }
+}
@@ -0,0 +1,141 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertThrows
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+import java.util.Collections
+import java.util.IdentityHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+
+class QuestionCacheTest {
+
+    private val modes = listOf("tap", "shake", "mental")
+    private val difficulties = listOf("1", "2", "3", "4", "5")
+
+    private val rows = modes.flatMap { mode ->
+        difficulties.flatMap { difficulty ->
+            List(3) { i -> QuestionRow("Q$i {a}+{b}", mode, "a1:5*b1:5*", difficulty, "{a}+{b}") }
+        }
+    }
+
+    private val loads = AtomicInteger()
+
+    private val loader: suspend () -> QuestionSource? = {
+        loads.incrementAndGet()
+        QuestionRowIndex.build(rows)
+    }
+
+    @Before
+    fun setUp() {
+        QuestionCache.clearCache()
+    }
+
+    @After
+    fun tearDown() {
+        QuestionCache.clearCache()
+    }
+
+    @Test
+    fun `every mode and difficulty streams from one sheet load`() = runBlocking {
+        for (mode in modes) {
+            for (difficulty in difficulties) {
+                val stream = QuestionCache.openStream("en", mode, difficulty, loader)
+                assertEquals(3, stream.rowCount)
+                assertTrue(stream.take(3).all { it.answer in 2..10 })
+            }
+        }
+
+        assertEquals(1, loads.get())
+    }
+
+    @Test
+    fun `sheet rows are visited exactly once`() = runBlocking {
+        val visits = IdentityHashMap<QuestionRow, Int>()
+        val countingRows = Iterable {
+            rows.iterator().asSequence().onEach { visits[it] = (visits[it] ?: 0) + 1 }.iterator()
+        }
+
+        for (mode in modes) {
+            for (difficulty in difficulties) {
+                QuestionCache.openStream("en", mode, difficulty) { QuestionRowIndex.build(countingRows) }
+            }
+        }
+
+        assertEquals(rows.size, visits.size)
+        assertTrue(visits.values.all { it == 1 })
+    }
+
+    @Test
+    fun `concurrent opens join the load in flight`() {
+        val ready = CountDownLatch(1)
+        val sources = Collections.synchronizedList(mutableListOf<QuestionSource?>())
+        val slowLoader: suspend () -> QuestionSource? = {
+            delay(50)
+            loader()
+        }
+
+        val threads = List(8) {
+            thread {
+                ready.await()
+                runBlocking {
+                    assertEquals(3, QuestionCache.openStream("en", "tap", "1", slowLoader).rowCount)
+                    sources.add(QuestionCache.source("en", slowLoader))
+                }
+            }
+        }
+        ready.countDown()
+        threads.forEach { it.join() }
+
+        assertEquals(1, loads.get())
+        assertEquals(8, sources.size)
+        assertTrue(sources.all { it != null && it === sources[0] })
+    }
+
+    @Test
+    fun `failed load is retried by the next caller`() = runBlocking {
+        val failing: suspend () -> QuestionSource? = {
+            loads.incrementAndGet()
+            throw IOException("unreadable sheet")
+        }
+
+        assertThrows(IOException::class.java) {
+            runBlocking { QuestionCache.source("en", failing) }
+        }
+        val stream = QuestionCache.openStream("en", "tap", "1", loader)
+
+        assertEquals(2, loads.get())
+        assertEquals(3, stream.rowCount)
+    }
+
+    @Test
+    fun `empty load is retried by the next caller`() = runBlocking {
+        val empty = QuestionCache.openStream("en", "tap", "1") {
+            loads.incrementAndGet()
+            null
+        }
+        val stream = QuestionCache.openStream("en", "tap", "1", loader)
+
+        assertFalse(empty.hasNext())
+        assertEquals(2, loads.get())
+        assertEquals(3, stream.rowCount)
+    }
+
+    @Test
+    fun `finished load is kept per language`() = runBlocking {
+        val english = QuestionCache.source("en", loader)
+
+        assertSame(english, QuestionCache.source("en", loader))
+        QuestionCache.source("ml", loader)
+        assertEquals(2, loads.get())
+    }
+}
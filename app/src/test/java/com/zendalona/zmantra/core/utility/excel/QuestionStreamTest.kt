@@ -0,0 +1,42 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.random.Random
+
+class QuestionStreamTest {
+
+    private val rows = listOf(
+        QuestionRow("A {a}", "tap", "a1:100*", "1", "{a}"),
+        QuestionRow("B {a}", "tap", "a1:100*", "1", "{a}")
+    )
+
+    @Test
+    fun `stream wraps around the rows in sheet order`() {
+        val stream = QuestionStream.of(rows, Random(1))
+
+        val prefixes = List(5) { stream.next().expression.substringBefore(' ') }
+
+        assertEquals(listOf("A", "B", "A", "B", "A"), prefixes)
+    }
+
+    @Test
+    fun `operands are drawn again on every pass`() {
+        val stream = QuestionStream.of(rows.take(1), Random(1))
+
+        val answers = List(50) { stream.next().answer }
+
+        assertTrue(answers.all { it in 1..100 })
+        assertTrue(answers.toSet().size > 1)
+    }
+
+    @Test
+    fun `stream without usable rows is empty`() {
+        val stream = QuestionStream.of(listOf(QuestionRow("{a}", "tap", "a1*5", "1", "{a}")))
+
+        assertFalse(stream.hasNext())
+        assertTrue(stream.take(3).isEmpty())
+    }
+}
@@ -0,0 +1,81 @@
+package com.zendalona.zmantra.core.utility.excel
+
+import com.zendalona.zmantra.build.XlsxSheetReader
+import org.apache.poi.xssf.usermodel.XSSFWorkbook
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+/** The build-time sheet compiler and the app's fallback reader must see the same cell text. */
+class SheetReaderParityTest {
+
+    @get:Rule
+    val tmp = TemporaryFolder()
+
+    @Test
+    fun `numbers booleans and blank styled cells read the same in both readers`() {
+        val sheet = tmp.newFile("fixture.xlsx")
+        XSSFWorkbook().use { workbook ->
+            val styled = workbook.createCellStyle().apply {
+                setFont(workbook.createFont().apply { bold = true })
+            }
+            val rows = workbook.createSheet()
+            rows.createRow(0).apply {
+                createCell(0).setCellValue("Question")
+                createCell(1).setCellValue("Mode")
+            }
+            rows.createRow(1).apply {
+                createCell(0).setCellValue("{a} + {b}")
+                createCell(1).setCellValue("tap")
+                createCell(2).cellStyle = styled
+                createCell(3).setCellValue(5.0)
+                createCell(4).setCellValue(2.5)
+                createCell(5).setCellValue(true)
+            }
+            // Row 2 is skipped; row 3 has a gap before its only cell
+            rows.createRow(3).createCell(4).setCellValue(12.0)
+            sheet.outputStream().use(workbook::write)
+        }
+
+        val compiled = XlsxSheetReader.readFirstSheet(sheet)
+        val runtime = readAtRuntime(sheet)
+
+        assertEquals(compiled, runtime)
+        val row = runtime[1]
+        assertEquals("", row[2])
+        assertEquals("5.0", row[3])
+        assertEquals("2.5", row[4])
+        assertEquals("TRUE", row[5])
+        assertEquals(3, runtime[2].rowNum)
+        assertEquals(mapOf(4 to "12.0"), runtime[2].cells)
+    }
+
+    @Test
+    fun `bundled sheets read the same in both readers`() {
+        val sheets = listOf("questions", "hint").flatMap { dir ->
+            File("src/main/assets/$dir").listFiles { file -> file.extension == "xlsx" }.orEmpty().toList()
+        }
+        assertTrue(sheets.isNotEmpty())
+
+        for (sheet in sheets) {
+            assertEquals(sheet.path, XlsxSheetReader.readFirstSheet(sheet), readAtRuntime(sheet))
+        }
+    }
+
+    // Present cells only, in the build-time reader's row shape
+    private fun readAtRuntime(sheet: File): List<XlsxSheetReader.Row> {
+        val rows = mutableListOf<XlsxSheetReader.Row>()
+        sheet.inputStream().use { input ->
+            StreamingSheetReader.read(input) { rowNum, cells ->
+                val present = LinkedHashMap<Int, String>()
+                cells.forEachIndexed { column, text -> if (text != null) present[column] = text }
+                rows.add(XlsxSheetReader.Row(rowNum, present))
+                true
+            }
+        }
+        return rows
+    }
+}
@@ -0,0 +1,31 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class FrameStatsTest {
+
+    @Test
+    fun summarizesFrames() {
+        val stats = FrameStats("frame")
+        stats.record(2_000_000)
+        stats.record(4_000_000)
+        stats.record(12_000_000)
+
+        assertEquals(3, stats.frames())
+        assertEquals(6.0, stats.averageMillis(), 1e-9)
+        assertEquals(12.0, stats.maxMillis(), 1e-9)
+        assertEquals("frame: 3 frames, avg 6.00 ms, max 12.00 ms", stats.toString())
+    }
+
+    @Test
+    fun resetStartsOver() {
+        val stats = FrameStats("onDraw")
+        stats.record(5_000_000)
+        stats.reset()
+
+        assertEquals(0, stats.frames())
+        assertEquals(0.0, stats.averageMillis(), 0.0)
+        assertEquals(0.0, stats.maxMillis(), 0.0)
+    }
+}
@@ -0,0 +1,116 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.BitSet
+import kotlin.math.abs
+import kotlin.math.hypot
+import kotlin.random.Random
+
+class RDPTest {
+
+    // (0,0) to (10,0) to (10,10) in steps of 0.5
+    private val corner: FloatArray = run {
+        val points = ArrayList<Float>()
+        for (i in 0..20) points += listOf(i * 0.5f, 0f)
+        for (i in 1..20) points += listOf(10f, i * 0.5f)
+        points.toFloatArray()
+    }
+
+    private fun randomWalk(count: Int): FloatArray {
+        val random = Random(11)
+        val coords = FloatArray(count * 2)
+        for (i in 1 until count) {
+            coords[i * 2] = coords[i * 2 - 2] + random.nextFloat() * 4 - 1
+            coords[i * 2 + 1] = coords[i * 2 - 1] + random.nextFloat() * 2 - 1
+        }
+        return coords
+    }
+
+    private fun distance(coords: FloatArray, p: Int, s: Int, e: Int): Double {
+        val dx = (coords[e * 2] - coords[s * 2]).toDouble()
+        val dy = (coords[e * 2 + 1] - coords[s * 2 + 1]).toDouble()
+        val qx = (coords[p * 2] - coords[s * 2]).toDouble()
+        val qy = (coords[p * 2 + 1] - coords[s * 2 + 1]).toDouble()
+        val length = hypot(dx, dy)
+        return if (length == 0.0) hypot(qx, qy) else abs(qx * dy - qy * dx) / length
+    }
+
+    @Test
+    fun keepsEndpointsAndCorner() {
+        val kept = BitSet()
+        val count = RDP.simplify(corner, 0, corner.size / 2, 0.25f, kept)
+
+        assertEquals(3, count)
+        assertEquals(listOf(0, 20, 40), kept.stream().toArray().toList())
+    }
+
+    @Test
+    fun droppedPointsStayWithinEpsilon() {
+        val coords = randomWalk(2000)
+        val kept = BitSet()
+        val count = RDP.simplify(coords, 0, 2000, 3f, kept)
+        assertEquals(kept.cardinality(), count)
+        assertTrue(count < 2000)
+
+        var start = 0
+        var end = kept.nextSetBit(1)
+        for (i in 1 until 2000) {
+            if (i == end) {
+                start = end
+                end = kept.nextSetBit(end + 1)
+            } else {
+                assertTrue("point $i", distance(coords, i, start, end) <= 3.0 + 1e-4)
+            }
+        }
+    }
+
+    @Test
+    fun listVersionKeepsOriginalArrays() {
+        val points = (0 until corner.size / 2).map { floatArrayOf(corner[it * 2], corner[it * 2 + 1]) }
+        val simplified = RDP.rdp(points, 0.25f)
+        assertEquals(listOf(points[0], points[20], points[40]), simplified)
+    }
+
+    @Test
+    fun streamingKeepsCorner() {
+        val streaming = StreamingRdp(0.25f)
+        streaming.startStroke()
+        for (i in 0 until corner.size / 2) streaming.add(corner[i * 2], corner[i * 2 + 1])
+        streaming.finishStroke()
+
+        val simplified = streaming.simplified()
+        assertEquals(3, simplified.pointCount())
+        assertEquals(10f, simplified.x(1), 0f)
+        assertEquals(0f, simplified.y(1), 0f)
+        assertEquals(10f, simplified.y(2), 0f)
+    }
+
+    @Test
+    fun streamingDroppedPointsStayNearEpsilon() {
+        val coords = randomWalk(2000)
+        val streaming = StreamingRdp(3f)
+        for (i in 0 until 2000) streaming.add(coords[i * 2], coords[i * 2 + 1])
+        streaming.finishStroke()
+
+        // Map kept points back to their indices; the walk never repeats a point exactly
+        val simplified = streaming.simplified()
+        val keptIndices = IntArray(simplified.pointCount())
+        var next = 0
+        for (i in 0 until 2000) {
+            if (next < keptIndices.size &&
+                coords[i * 2] == simplified.x(next) && coords[i * 2 + 1] == simplified.y(next)
+            ) keptIndices[next++] = i
+        }
+        assertEquals(simplified.pointCount(), next)
+        assertEquals(1999, keptIndices.last())
+
+        for (k in 1 until keptIndices.size) {
+            for (i in keptIndices[k - 1] + 1 until keptIndices[k]) {
+                // Keeping the farthest point trades the strict bound for sharper corners
+                assertTrue("point $i", distance(coords, i, keptIndices[k - 1], keptIndices[k]) <= 4.5)
+            }
+        }
+    }
+}
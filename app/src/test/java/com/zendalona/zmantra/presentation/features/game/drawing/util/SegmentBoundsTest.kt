@@ -0,0 +1,42 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class SegmentBoundsTest {
+
+    @Test
+    fun coversLongFirstSegmentFromThePreviousPoint() {
+        val bounds = SegmentBounds()
+        bounds.start(10f, 20f)
+        bounds.add(300f, 40f)
+        bounds.add(301f, 41f)
+
+        assertEquals(10, bounds.left(0f))
+        assertEquals(20, bounds.top(0f))
+        assertEquals(302, bounds.right(0f))
+        assertEquals(42, bounds.bottom(0f))
+    }
+
+    @Test
+    fun integerSamplesStillCoverTheirPixel() {
+        val bounds = SegmentBounds()
+        bounds.start(50f, 50f)
+        bounds.add(50f, 50f)
+
+        assertEquals(1, bounds.right(0f) - bounds.left(0f))
+        assertEquals(1, bounds.bottom(0f) - bounds.top(0f))
+    }
+
+    @Test
+    fun roundsOutFractionalPointsAndPad() {
+        val bounds = SegmentBounds()
+        bounds.start(100.5f, 200.25f)
+        bounds.add(90.75f, 230.5f)
+
+        assertEquals(84, bounds.left(6f))
+        assertEquals(194, bounds.top(6f))
+        assertEquals(107, bounds.right(6f))
+        assertEquals(237, bounds.bottom(6f))
+    }
+}
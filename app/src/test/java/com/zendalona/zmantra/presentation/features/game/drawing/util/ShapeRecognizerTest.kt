@@ -0,0 +1,110 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import kotlin.math.PI
+import kotlin.math.abs
+import kotlin.math.cos
+import kotlin.math.sin
+import kotlin.random.Random
+
+class ShapeRecognizerTest {
+
+    private val random = Random(1)
+
+    private fun ShapeRecognizer.jittered(x: Float, y: Float) =
+        add(x + (random.nextFloat() - 0.5f) * 4, y + (random.nextFloat() - 0.5f) * 4)
+
+    private fun ShapeRecognizer.polygon(vararg corners: Pair<Float, Float>, closed: Boolean = true) {
+        val sides = if (closed) corners.size else corners.size - 1
+        for (i in 0 until sides) {
+            val (ax, ay) = corners[i]
+            val (bx, by) = corners[(i + 1) % corners.size]
+            for (j in 0 until 100) {
+                val t = j / 100f
+                jittered(ax + (bx - ax) * t, ay + (by - ay) * t)
+            }
+        }
+        val (endX, endY) = if (closed) corners[0] else corners.last()
+        add(endX, endY)
+    }
+
+    private fun regular(sides: Int, radius: Float) = Array(sides) {
+        val angle = 2 * PI * it / sides
+        (300 + radius * cos(angle)).toFloat() to (300 + radius * sin(angle)).toFloat()
+    }
+
+    private fun recognizer() = ShapeRecognizer(16f)
+
+    @Test
+    fun recognizesCircles() {
+        for (radius in listOf(80f, 300f)) {
+            val recognizer = recognizer()
+            for (i in 0..400) {
+                val angle = 2 * PI * i / 400
+                recognizer.jittered((500 + radius * cos(angle)).toFloat(), (500 + radius * sin(angle)).toFloat())
+            }
+            assertEquals("radius $radius", ShapeRecognizer.Shape.CIRCLE, recognizer.classify())
+        }
+    }
+
+    @Test
+    fun recognizesPolygons() {
+        val triangle = recognizer().apply { polygon(100f to 400f, 400f to 400f, 250f to 140f) }
+        assertEquals(ShapeRecognizer.Shape.TRIANGLE, triangle.classify())
+
+        val square = recognizer().apply { polygon(100f to 100f, 400f to 100f, 400f to 400f, 100f to 400f) }
+        assertEquals(ShapeRecognizer.Shape.SQUARE, square.classify())
+
+        val rectangle = recognizer().apply { polygon(100f to 100f, 500f to 100f, 500f to 300f, 100f to 300f) }
+        assertEquals(ShapeRecognizer.Shape.QUADRILATERAL, rectangle.classify())
+
+        val hexagon = recognizer().apply { polygon(*regular(6, 200f)) }
+        assertEquals(ShapeRecognizer.Shape.POLYGON, hexagon.classify())
+        assertEquals(6, hexagon.cornerCount())
+    }
+
+    @Test
+    fun staysOpenUntilTheOutlineCloses() {
+        val recognizer = recognizer()
+        recognizer.polygon(100f to 100f, 400f to 100f, 400f to 400f, 100f to 400f, closed = false)
+        assertEquals(ShapeRecognizer.Shape.OPEN, recognizer.classify())
+
+        for (j in 0..100) recognizer.add(100f, 400f - 3 * j)
+        assertEquals(ShapeRecognizer.Shape.SQUARE, recognizer.classify())
+    }
+
+    @Test
+    fun tracksRunningFeatures() {
+        val recognizer = recognizer()
+        recognizer.polygon(100f to 100f, 400f to 100f, 400f to 400f, 100f to 400f)
+
+        assertEquals(300f, recognizer.width(), 5f)
+        assertEquals(300f, recognizer.height(), 5f)
+        assertEquals(250f, recognizer.centroidX(), 5f)
+        assertEquals(250f, recognizer.centroidY(), 5f)
+        assertEquals(90000.0, abs(recognizer.signedArea()), 2000.0)
+        assertEquals(1200.0, recognizer.perimeter(), 30.0)
+
+        recognizer.clear()
+        assertEquals(0, recognizer.pointCount())
+        assertEquals(0.0, recognizer.signedArea(), 0.0)
+        assertEquals(0.0, recognizer.compactness(), 0.0)
+        assertEquals(ShapeRecognizer.Shape.UNKNOWN, recognizer.classify())
+    }
+
+    @Test
+    fun clearForgetsThePreviousDrawing() {
+        val reused = recognizer()
+        reused.polygon(100f to 100f, 400f to 100f, 400f to 400f, 100f to 400f)
+        reused.clear()
+        reused.polygon(600f to 700f, 900f to 700f, 750f to 440f)
+
+        val fresh = recognizer().apply { polygon(600f to 700f, 900f to 700f, 750f to 440f) }
+
+        assertEquals(ShapeRecognizer.Shape.TRIANGLE, reused.classify())
+        assertEquals(fresh.signedArea(), reused.signedArea(), 1000.0)
+        assertEquals(fresh.width(), reused.width(), 5f)
+        assertEquals(fresh.height(), reused.height(), 5f)
+    }
+}
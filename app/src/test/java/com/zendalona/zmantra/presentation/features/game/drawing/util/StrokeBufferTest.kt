@@ -0,0 +1,55 @@
+package com.zendalona.zmantra.presentation.features.game.drawing.util
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+
+class StrokeBufferTest {
+
+    @Test
+    fun tracksStrokeBoundaries() {
+        val buffer = StrokeBuffer()
+        buffer.startStroke()
+        buffer.add(0f, 0f)
+        buffer.add(1f, 2f)
+        buffer.startStroke()
+        buffer.add(3f, 4f)
+
+        assertEquals(3, buffer.pointCount())
+        assertEquals(2, buffer.strokeCount())
+        assertEquals(0, buffer.strokeStart(0))
+        assertEquals(2, buffer.strokeEnd(0))
+        assertEquals(2, buffer.strokeStart(1))
+        assertEquals(3, buffer.strokeEnd(1))
+        assertEquals(3f, buffer.x(2), 0f)
+        assertEquals(4f, buffer.y(2), 0f)
+    }
+
+    @Test
+    fun growsAndKeepsCapacityAfterClear() {
+        val buffer = StrokeBuffer()
+        for (i in 0 until 2000) buffer.add(i.toFloat(), -i.toFloat())
+
+        assertEquals(1, buffer.strokeCount())
+        assertEquals(1999f, buffer.x(1999), 0f)
+        assertEquals(-1999f, buffer.y(1999), 0f)
+
+        val coords = buffer.coords()
+        buffer.clear()
+        buffer.add(5f, 6f)
+        assertEquals(1, buffer.pointCount())
+        assertSame(coords, buffer.coords())
+    }
+
+    @Test
+    fun copiesToPointList() {
+        val buffer = StrokeBuffer()
+        buffer.add(1f, 2f)
+        buffer.add(3f, 4f)
+
+        val points = buffer.toPointList()
+        assertEquals(2, points.size)
+        assertEquals(3f, points[1][0], 0f)
+        assertEquals(4f, points[1][1], 0f)
+    }
+}
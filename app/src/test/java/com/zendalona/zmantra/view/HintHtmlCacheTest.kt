@@ -0,0 +1,75 @@
+package com.zendalona.zmantra.view
+
+import com.zendalona.zmantra.domain.repository.HintRepository
+import com.zendalona.zmantra.presentation.features.hint.HintHtmlCache
+import com.zendalona.zmantra.presentation.features.hint.HintHtmlCache.HintTheme
+import kotlinx.coroutines.test.runTest
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class HintHtmlCacheTest {
+
+    private class CountingHintRepository : HintRepository {
+        val hints = mapOf("tap" to "Objective: tap\nTips: count")
+        var lookups = 0
+
+        override suspend fun getHint(language: String, mode: String): String? {
+            lookups++
+            return hints[mode]
+        }
+
+        override suspend fun getHints(language: String): Map<String, String> = hints
+    }
+
+    private val light = HintTheme("#FFFFFF", "#000000")
+    private val dark = HintTheme("#000000", "#FFFFFF")
+
+    @Test
+    fun `repeated opens reuse the rendered page`() = runTest {
+        val repository = CountingHintRepository()
+        val cache = HintHtmlCache(repository)
+
+        val first = cache.getHtml("en", "tap", light, "fallback")
+        val second = cache.getHtml("en", "tap", light, "fallback")
+
+        assertSame(first, second)
+        assertEquals(1, repository.lookups)
+        assertTrue(first.contains("background-color: #FFFFFF"))
+        assertTrue(first.contains("<h2><strong>Tips</strong></h2>"))
+    }
+
+    @Test
+    fun `theme is part of the key`() = runTest {
+        val cache = HintHtmlCache(CountingHintRepository())
+
+        val lightPage = cache.getHtml("en", "tap", light, "fallback")
+        val darkPage = cache.getHtml("en", "tap", dark, "fallback")
+
+        assertNotSame(lightPage, darkPage)
+        assertTrue(darkPage.contains("background-color: #000000"))
+    }
+
+    @Test
+    fun `warmed pages skip the lookup and invalidate drops them`() = runTest {
+        val repository = CountingHintRepository()
+        val cache = HintHtmlCache(repository)
+
+        cache.warm("en", light)
+        cache.getHtml("en", "tap", light, "fallback")
+        assertEquals(0, repository.lookups)
+
+        cache.invalidate()
+        cache.getHtml("en", "tap", light, "fallback")
+        assertEquals(1, repository.lookups)
+    }
+
+    @Test
+    fun `missing hint renders the fallback`() = runTest {
+        val cache = HintHtmlCache(CountingHintRepository())
+
+        assertTrue(cache.getHtml("en", "shake", light, "No hint yet").contains("<p>No hint yet</p>"))
+    }
+}
@@ -0,0 +1,30 @@
+package com.zendalona.zmantra.view
+
+import com.zendalona.zmantra.presentation.features.userguide.UserGuideHtmlTemplate
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class UserGuideHtmlTemplateTest {
+
+    @Test
+    fun `render splices colors and body into the shell`() {
+        val html = UserGuideHtmlTemplate.render("<p>Hello</p>", "#FFFFFF", "#000000")
+
+        assertTrue(html.contains("background-color: #FFFFFF;"))
+        assertTrue(html.contains("color: #000000;"))
+        assertTrue(html.contains("<p>Hello</p>"))
+        assertFalse(html.contains("{{"))
+    }
+
+    @Test
+    fun `append script quotes the section as a JavaScript string`() {
+        val script = UserGuideHtmlTemplate.appendScript("<p>It's a \\ test\n</p>")
+
+        assertEquals(
+            "document.body.insertAdjacentHTML('beforeend', '<p>It\\'s a \\\\ test\\n</p>');",
+            script
+        )
+    }
+}
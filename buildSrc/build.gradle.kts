@@ -0,0 +1,16 @@
+plugins {
+    `kotlin-dsl`
+}
+
+repositories {
+    mavenCentral()
+    gradlePluginPortal()
+}
+
+sourceSets {
+    main {
+        // The cell text rule also ships in the app; the xlsx reader also runs in its unit tests
+        kotlin.srcDir("src/shared/kotlin")
+        kotlin.srcDir("src/xlsx/kotlin")
+    }
+}
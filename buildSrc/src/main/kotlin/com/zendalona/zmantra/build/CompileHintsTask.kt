@@ -0,0 +1,70 @@
+package com.zendalona.zmantra.build
+
+import org.gradle.api.DefaultTask
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+import java.io.File
+import java.util.Locale
+
+/**
+ * Compiles every `hint/<lang>.xlsx` into `hint/<lang>.json`, a flat `{"mode": "hint"}` object.
+ *
+ * Modes are trimmed and lower-cased, and the first row for a mode wins, matching the
+ * case-insensitive first-match lookup of `ExcelHintReader`.
+ */
+@CacheableTask
+abstract class CompileHintsTask : DefaultTask() {
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val sheets: ConfigurableFileCollection
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun compile() {
+        val hintDir = outputDir.get().asFile.resolve("hint")
+        hintDir.deleteRecursively()
+        hintDir.mkdirs()
+
+        sheets.files.sortedBy { it.name }.forEach { sheet ->
+            val hints = LinkedHashMap<String, String>()
+            XlsxSheetReader.readFirstSheet(sheet).forEach { row ->
+                val mode = row[0]?.trim()?.lowercase(Locale.ROOT) ?: return@forEach
+                val hint = row[1] ?: return@forEach
+                if (mode.isNotEmpty()) hints.putIfAbsent(mode, hint.trim())
+            }
+
+            val target = File(hintDir, "${sheet.nameWithoutExtension.lowercase(Locale.ROOT)}.json")
+            target.writeText(toJson(hints), Charsets.UTF_8)
+            logger.info("Compiled ${sheet.name}: ${hints.size} hints -> ${target.name}")
+        }
+    }
+
+    private fun toJson(hints: Map<String, String>): String =
+        hints.entries.joinToString(",\n", prefix = "{\n", postfix = "\n}\n") { (mode, hint) ->
+            "  ${quote(mode)}: ${quote(hint)}"
+        }
+
+    private fun quote(value: String): String {
+        val sb = StringBuilder(value.length + 2).append('"')
+        for (c in value) {
+            when (c) {
+                '"' -> sb.append("\\\"")
+                '\\' -> sb.append("\\\\")
+                '\n' -> sb.append("\\n")
+                '\r' -> sb.append("\\r")
+                '\t' -> sb.append("\\t")
+                else -> if (c < ' ') sb.append(String.format("\\u%04x", c.code)) else sb.append(c)
+            }
+        }
+        return sb.append('"').toString()
+    }
+}
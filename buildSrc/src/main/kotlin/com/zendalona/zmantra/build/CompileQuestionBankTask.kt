@@ -0,0 +1,127 @@
+package com.zendalona.zmantra.build
+
+import org.gradle.api.DefaultTask
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.file.DirectoryProperty
+import org.gradle.api.tasks.CacheableTask
+import org.gradle.api.tasks.InputFiles
+import org.gradle.api.tasks.OutputDirectory
+import org.gradle.api.tasks.PathSensitive
+import org.gradle.api.tasks.PathSensitivity
+import org.gradle.api.tasks.TaskAction
+import java.io.BufferedOutputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.util.Locale
+
+/**
+ * Compiles every `questions/<lang>.xlsx` into `questions/<lang>.bin` so the app never has to
+ * build a POI workbook on startup.
+ *
+ * Layout (big-endian, read by `QuestionBank.read` in the app):
+ * ```
+ * int    magic 'ZMQB'
+ * short  version
+ * int    stringCount, then stringCount x writeUTF
+ * int    rowCount
+ * int[]  template, mode, operands, answer   (string table indexes, one column each)
+ * int[]  difficulty, timeLimit
+ * int    groupCount, then groupCount x (mode, difficulty, firstRow, rowCount)
+ * ```
+ * Rows are grouped by (mode, difficulty) and keep their sheet order inside a group, so the
+ * group table doubles as the mode/difficulty index.
+ */
+@CacheableTask
+abstract class CompileQuestionBankTask : DefaultTask() {
+
+    @get:InputFiles
+    @get:PathSensitive(PathSensitivity.NAME_ONLY)
+    abstract val sheets: ConfigurableFileCollection
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun compile() {
+        val questionsDir = outputDir.get().asFile.resolve("questions")
+        questionsDir.deleteRecursively()
+        questionsDir.mkdirs()
+
+        sheets.files.sortedBy { it.name }.forEach { sheet ->
+            val rows = XlsxSheetReader.readFirstSheet(sheet).mapNotNull(::toQuestionRow)
+            val target = File(questionsDir, "${sheet.nameWithoutExtension.lowercase(Locale.ROOT)}.bin")
+            writeBank(target, rows)
+            logger.info("Compiled ${sheet.name}: ${rows.size} rows -> ${target.name}")
+        }
+    }
+
+    private class Row(
+        val template: String,
+        val mode: String,
+        val operands: String,
+        val difficulty: Int,
+        val answer: String,
+        val timeLimit: Int
+    )
+
+    /** Mirrors the column rules of `ExcelQuestionLoader.readRow`. */
+    private fun toQuestionRow(row: XlsxSheetReader.Row): Row? {
+        if (row.rowNum == 0) return null
+
+        val template = row[0] ?: return null
+        val mode = row[1]?.trim()?.lowercase(Locale.ROOT)?.takeIf { it.isNotEmpty() } ?: return null
+        val operands = row[2] ?: return null
+        val difficulty = row[3]?.toDoubleOrNull()?.toInt() ?: return null
+        val answer = row[4] ?: return null
+        val timeLimit = row[5]?.toDoubleOrNull()?.toInt() ?: 20
+
+        return Row(template, mode, operands, difficulty, answer, timeLimit)
+    }
+
+    private fun writeBank(target: File, rows: List<Row>) {
+        val strings = LinkedHashMap<String, Int>()
+        fun intern(value: String) = strings.getOrPut(value) { strings.size }
+
+        val modeOrder = LinkedHashMap<String, Int>()
+        rows.forEach { modeOrder.getOrPut(it.mode) { modeOrder.size } }
+        val sorted = rows.sortedWith(compareBy<Row>({ modeOrder.getValue(it.mode) }, { it.difficulty }))
+
+        val template = IntArray(sorted.size)
+        val mode = IntArray(sorted.size)
+        val operands = IntArray(sorted.size)
+        val answer = IntArray(sorted.size)
+        sorted.forEachIndexed { i, row ->
+            template[i] = intern(row.template)
+            mode[i] = intern(row.mode)
+            operands[i] = intern(row.operands)
+            answer[i] = intern(row.answer)
+        }
+
+        DataOutputStream(BufferedOutputStream(target.outputStream())).use { out ->
+            out.writeInt(MAGIC)
+            out.writeShort(VERSION)
+
+            out.writeInt(strings.size)
+            strings.keys.forEach(out::writeUTF)
+
+            out.writeInt(sorted.size)
+            listOf(template, mode, operands, answer).forEach { column -> column.forEach(out::writeInt) }
+            sorted.forEach { out.writeInt(it.difficulty) }
+            sorted.forEach { out.writeInt(it.timeLimit) }
+
+            val groups = sorted.indices.groupBy { sorted[it].mode to sorted[it].difficulty }
+            out.writeInt(groups.size)
+            groups.forEach { (key, indexes) ->
+                out.writeInt(strings.getValue(key.first))
+                out.writeInt(key.second)
+                out.writeInt(indexes.first())
+                out.writeInt(indexes.size)
+            }
+        }
+    }
+
+    companion object {
+        const val MAGIC = 0x5A4D5142 // "ZMQB"
+        const val VERSION = 1
+    }
+}
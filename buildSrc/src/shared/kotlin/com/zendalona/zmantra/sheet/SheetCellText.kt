@@ -0,0 +1,27 @@
+package com.zendalona.zmantra.sheet
+
+/**
+ * How a worksheet cell becomes text, shared by the build-time `XlsxSheetReader` and the app's
+ * `StreamingSheetReader` so a compiled bank and a sheet parsed on device read the same.
+ *
+ * Follows POI's `Cell.toString()`, which the app originally read sheets with: shared and inline
+ * strings verbatim, numbers as `Double.toString` ("1.0"), booleans as `TRUE`/`FALSE`, and a
+ * cell present without a value (e.g. blank but styled) as "".
+ */
+object SheetCellText {
+
+    /**
+     * @param type the cell's `t` attribute.
+     * @param raw text of the cell's `<v>` or inline `<t>` elements, null when it has none.
+     * @param sharedString looks up the shared string table; "" for an index it does not have.
+     */
+    fun text(type: String?, raw: String?, sharedString: (Int) -> String): String {
+        if (raw == null) return ""
+        return when (type) {
+            "s" -> raw.trim().toIntOrNull()?.let(sharedString) ?: ""
+            "inlineStr", "str", "e" -> raw
+            "b" -> if (raw.trim() == "1") "TRUE" else "FALSE"
+            else -> raw.trim().toDoubleOrNull()?.toString() ?: raw
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.zendalona.zmantra.build
+
+import com.zendalona.zmantra.sheet.SheetCellText
+import java.io.File
+import java.io.InputStream
+import java.util.zip.ZipFile
+import javax.xml.stream.XMLInputFactory
+import javax.xml.stream.XMLStreamConstants
+import javax.xml.stream.XMLStreamReader
+
+/**
+ * Minimal build-time reader for the first worksheet of an `.xlsx` file.
+ *
+ * Only the JDK's zip and StAX APIs are used, so the build does not need POI on its classpath.
+ * Cell text comes from [SheetCellText], the rule the app's runtime reader uses too. The app's
+ * unit tests compile this file to check that both readers agree.
+ */
+object XlsxSheetReader {
+
+    /** A sheet row; [cells] is keyed by zero-based column index. */
+    data class Row(val rowNum: Int, val cells: Map<Int, String>) {
+        operator fun get(column: Int): String? = cells[column]
+    }
+
+    fun readFirstSheet(file: File): List<Row> = ZipFile(file).use { zip ->
+        val sharedStrings = zip.getEntry("xl/sharedStrings.xml")
+            ?.let { entry -> zip.getInputStream(entry).use(::readSharedStrings) }
+            ?: emptyList()
+
+        val sheetPath = firstSheetPath(zip)
+        val sheetEntry = zip.getEntry(sheetPath)
+            ?: error("${file.name}: worksheet $sheetPath not found")
+        zip.getInputStream(sheetEntry).use { readRows(it, sharedStrings) }
+    }
+
+    private fun firstSheetPath(zip: ZipFile): String {
+        val relId = zip.getInputStream(zip.getEntry("xl/workbook.xml")).use { stream ->
+            val reader = xmlReader(stream)
+            var id: String? = null
+            while (id == null && reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.localName == "sheet") {
+                    id = reader.attribute("id")
+                }
+            }
+            reader.close()
+            id
+        } ?: return "xl/worksheets/sheet1.xml"
+
+        val target = zip.getInputStream(zip.getEntry("xl/_rels/workbook.xml.rels")).use { stream ->
+            val reader = xmlReader(stream)
+            var found: String? = null
+            while (found == null && reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT &&
+                    reader.localName == "Relationship" &&
+                    reader.attribute("Id") == relId
+                ) {
+                    found = reader.attribute("Target")
+                }
+            }
+            reader.close()
+            found
+        } ?: return "xl/worksheets/sheet1.xml"
+
+        return if (target.startsWith("/")) target.removePrefix("/") else "xl/$target"
+    }
+
+    private fun readSharedStrings(stream: InputStream): List<String> {
+        val strings = mutableListOf<String>()
+        val reader = xmlReader(stream)
+        val current = StringBuilder()
+        var inPhonetic = false
+        var inText = false
+
+        while (reader.hasNext()) {
+            when (reader.next()) {
+                XMLStreamConstants.START_ELEMENT -> when (reader.localName) {
+                    "si" -> current.setLength(0)
+                    "rPh" -> inPhonetic = true
+                    "t" -> inText = !inPhonetic
+                }
+                XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA ->
+                    if (inText) current.append(reader.text)
+                XMLStreamConstants.END_ELEMENT -> when (reader.localName) {
+                    "si" -> strings.add(current.toString())
+                    "rPh" -> inPhonetic = false
+                    "t" -> inText = false
+                }
+            }
+        }
+        reader.close()
+        return strings
+    }
+
+    private fun readRows(stream: InputStream, sharedStrings: List<String>): List<Row> {
+        val rows = mutableListOf<Row>()
+        val reader = xmlReader(stream)
+
+        var rowNum = -1
+        var cells = mutableMapOf<Int, String>()
+        var column = -1
+        var type: String? = null
+        val value = StringBuilder()
+        var hasValue = false
+        var inValue = false
+
+        while (reader.hasNext()) {
+            when (reader.next()) {
+                XMLStreamConstants.START_ELEMENT -> when (reader.localName) {
+                    "row" -> {
+                        rowNum = (reader.attribute("r")?.toIntOrNull() ?: (rowNum + 2)) - 1
+                        cells = mutableMapOf()
+                        column = -1
+                    }
+                    "c" -> {
+                        column = reader.attribute("r")?.let(::columnIndex) ?: (column + 1)
+                        type = reader.attribute("t")
+                        value.setLength(0)
+                        hasValue = false
+                    }
+                    "v", "t" -> {
+                        inValue = true
+                        hasValue = true
+                    }
+                }
+                XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA ->
+                    if (inValue) value.append(reader.text)
+                XMLStreamConstants.END_ELEMENT -> when (reader.localName) {
+                    "v", "t" -> inValue = false
+                    "c" -> cells[column] = SheetCellText.text(type, if (hasValue) value.toString() else null) {
+                        sharedStrings.getOrElse(it) { "" }
+                    }
+                    "row" -> rows.add(Row(rowNum, cells))
+                }
+            }
+        }
+        reader.close()
+        return rows
+    }
+
+    private fun columnIndex(cellRef: String): Int {
+        var index = 0
+        for (c in cellRef) {
+            if (!c.isLetter()) break
+            index = index * 26 + (c.uppercaseChar() - 'A' + 1)
+        }
+        return index - 1
+    }
+
+    private fun xmlReader(stream: InputStream): XMLStreamReader {
+        val factory = XMLInputFactory.newInstance().apply {
+            setProperty(XMLInputFactory.SUPPORT_DTD, false)
+            setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false)
+        }
+        return factory.createXMLStreamReader(stream)
+    }
+
+    private fun XMLStreamReader.attribute(localName: String): String? {
+        for (i in 0 until attributeCount) {
+            if (getAttributeLocalName(i) == localName) return getAttributeValue(i)
+        }
+        return null
+    }
+}